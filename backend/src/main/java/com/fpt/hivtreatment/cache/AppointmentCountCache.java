@@ -0,0 +1,60 @@
+package com.fpt.hivtreatment.cache;
+
+import com.fpt.hivtreatment.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of appointment totals per manager list filter, so paging
+ * through appointments does not run a COUNT(*) on every request.
+ * 
+ * Entries expire after a TTL and are dropped whenever an appointment is
+ * created or changes status.
+ */
+@Component
+public class AppointmentCountCache {
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentCountCache.class);
+
+    private final Map<CountKey, CachedCount> counts = new ConcurrentHashMap<>();
+
+    @Value("${app.appointments.countCacheTtlMs:60000}")
+    private long ttlMs;
+
+    /**
+     * Get the cached total for a filter, computing it on a miss or after expiry.
+     */
+    public long getCount(String status, LocalDate startDate, LocalDate endDate, Supplier<Long> loader) {
+        CountKey key = new CountKey(status, startDate, endDate);
+        long now = System.currentTimeMillis();
+
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.count();
+        }
+
+        long count = loader.get();
+        counts.put(key, new CachedCount(count, now + ttlMs));
+        logger.debug("Cached appointment count {} for {}", count, key);
+        return count;
+    }
+
+    /**
+     * Drop all cached totals once the current transaction commits.
+     */
+    public void invalidateAll() {
+        TransactionHooks.afterCommit(counts::clear);
+    }
+
+    private record CountKey(String status, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.fpt.hivtreatment.cache;
+
+import com.fpt.hivtreatment.dto.StatusCount;
+import com.fpt.hivtreatment.repository.AppointmentRepository;
+import com.fpt.hivtreatment.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory appointment counts per status, so the manager dashboard poll does
+ * not hit the database.
+ * 
+ * Loaded with a single GROUP BY on first use, then kept current by the status
+ * change paths of the appointment service (applied after commit). A periodic
+ * resync corrects drift from writes that bypass the service; a reload is
+ * discarded if a change was applied while its query ran.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentStatusCounters {
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentStatusCounters.class);
+
+    private final AppointmentRepository appointmentRepository;
+
+    private volatile Map<String, AtomicLong> counters;
+
+    // Tăng mỗi lần áp dụng thay đổi, để không ghi đè thay đổi bằng kết quả đọc trước khi commit
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final Object writeLock = new Object();
+
+    /**
+     * Current count of appointments for every status that has at least one.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, AtomicLong> current = counters;
+        if (current == null) {
+            current = reload();
+        }
+
+        Map<String, Long> result = new HashMap<>();
+        current.forEach((status, count) -> result.put(status, count.get()));
+        return result;
+    }
+
+    /**
+     * Count a newly created appointment once the current transaction commits.
+     */
+    public void recordCreated(String status) {
+        TransactionHooks.afterCommit(() -> adjust(status, 1));
+    }
+
+    /**
+     * Move an appointment between statuses once the current transaction commits.
+     */
+    public void recordStatusChange(String fromStatus, String toStatus) {
+        if (fromStatus != null && fromStatus.equals(toStatus)) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            adjust(fromStatus, -1);
+            adjust(toStatus, 1);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.resyncIntervalMs:300000}",
+            initialDelayString = "${app.stats.resyncIntervalMs:300000}")
+    public void resync() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.error("Could not resync appointment status counters", e);
+        }
+    }
+
+    private Map<String, AtomicLong> reload() {
+        long sequence = changeSequence.get();
+        Map<String, AtomicLong> fresh = new ConcurrentHashMap<>();
+        for (StatusCount row : appointmentRepository.countGroupedByStatus()) {
+            if (row.status() != null) {
+                fresh.put(row.status(), new AtomicLong(row.count()));
+            }
+        }
+
+        synchronized (writeLock) {
+            if (changeSequence.get() != sequence) {
+                // Có thay đổi trong lúc đang đếm: giữ bộ đếm hiện tại, lần resync sau đếm lại
+                Map<String, AtomicLong> current = counters;
+                logger.debug("Appointment status changed during reload, keeping current counters");
+                return current != null ? current : fresh;
+            }
+            counters = fresh;
+        }
+        logger.debug("Appointment status counters loaded: {}", fresh);
+        return fresh;
+    }
+
+    private void adjust(String status, long delta) {
+        synchronized (writeLock) {
+            changeSequence.incrementAndGet();
+            Map<String, AtomicLong> current = counters;
+            if (current == null || status == null) {
+                // Not loaded yet: the first snapshot reads the committed state anyway
+                return;
+            }
+            current.computeIfAbsent(status, s -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.fpt.hivtreatment.cache;
+
+import com.fpt.hivtreatment.dto.AppointmentDTO;
+import com.fpt.hivtreatment.model.entity.Appointment;
+import com.fpt.hivtreatment.model.entity.User;
+import com.fpt.hivtreatment.repository.AppointmentRepository;
+import com.fpt.hivtreatment.service.impl.AppointmentServiceImpl;
+import com.fpt.hivtreatment.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Per-doctor worklist of today's confirmed appointments, so the doctor screens
+ * that refresh all day long are served from memory.
+ * 
+ * A doctor's worklist is loaded on the first request of the day and then
+ * patched after commit whenever one of their appointments for today is
+ * created, confirmed or cancelled. Changes made on other instances are picked
+ * up by reloading a worklist once it is older than a short TTL. Worklists of a
+ * previous day are rebuilt on read and dropped at midnight.
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorWorklistCache {
+    private static final Logger logger = LoggerFactory.getLogger(DoctorWorklistCache.class);
+
+    public static final String CONSULTATION_TYPE = "Tư vấn";
+
+    private static final Comparator<AppointmentDTO> WORKLIST_ORDER = Comparator
+            .comparing(AppointmentDTO::getTimeSlot, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(AppointmentDTO::getId);
+
+    private final AppointmentRepository appointmentRepository;
+
+    @Value("${app.worklist.ttlMs:30000}")
+    private long ttlMs;
+
+    private final Map<Long, Worklist> worklists = new ConcurrentHashMap<>();
+
+    // Tăng mỗi lần có thay đổi, để không lưu danh sách đọc trước khi thay đổi được commit
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    /**
+     * All confirmed appointments of the doctor for today
+     */
+    public List<AppointmentDTO> getConfirmedToday(Long doctorId) {
+        return getWorklist(doctorId).sorted();
+    }
+
+    /**
+     * Today's confirmed consultations ("Tư vấn") of the doctor
+     */
+    public List<AppointmentDTO> getConsultationsToday(Long doctorId) {
+        return getWorklist(doctorId).sorted(dto -> CONSULTATION_TYPE.equals(dto.getAppointmentType()));
+    }
+
+    /**
+     * Today's confirmed appointments of the doctor that are not consultations
+     */
+    public List<AppointmentDTO> getMedicalAppointmentsToday(Long doctorId) {
+        return getWorklist(doctorId).sorted(
+                dto -> dto.getAppointmentType() != null && !CONSULTATION_TYPE.equals(dto.getAppointmentType()));
+    }
+
+    /**
+     * Patch the worklist of the appointment's doctor once the current transaction
+     * commits. Must be called inside the transaction that changed the appointment,
+     * while its associations can still be loaded.
+     */
+    public void appointmentChanged(Appointment appointment) {
+        if (appointment.getAppointmentSlot() == null || appointment.getDoctor() == null) {
+            return;
+        }
+        Long doctorId = appointment.getDoctor().getDoctorId();
+        Long appointmentId = appointment.getId();
+
+        LocalDate date;
+        AppointmentDTO dto;
+        try {
+            date = appointment.getAppointmentSlot().getDoctorSchedule().getScheduleDate();
+            if (!LocalDate.now().equals(date)) {
+                return;
+            }
+            dto = AppointmentServiceImpl.STATUS_CONFIRMED.equals(appointment.getStatus())
+                    ? toDTO(appointment)
+                    : null;
+        } catch (RuntimeException e) {
+            // Lỗi cache không được làm hỏng giao dịch nghiệp vụ: bỏ worklist để lần đọc sau tải lại
+            logger.warn("Could not patch worklist of doctor {} for appointment {}, evicting it: {}", doctorId,
+                    appointmentId, e.getMessage());
+            TransactionHooks.afterCommit(() -> evict(doctorId));
+            return;
+        }
+
+        TransactionHooks.afterCommit(() -> worklists.compute(doctorId, (id, worklist) -> {
+            changeSequence.incrementAndGet();
+            if (worklist != null && worklist.date().equals(date)) {
+                if (dto != null) {
+                    worklist.appointments().put(appointmentId, dto);
+                } else {
+                    worklist.appointments().remove(appointmentId);
+                }
+                logger.debug("Patched worklist of doctor {} for appointment {}", doctorId, appointmentId);
+            }
+            return worklist;
+        }));
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void evictPreviousDays() {
+        LocalDate today = LocalDate.now();
+        worklists.values().removeIf(worklist -> !worklist.date().equals(today));
+    }
+
+    /**
+     * Drop worklists past their TTL, so doctors who stopped refreshing do not
+     * keep an entry until midnight
+     */
+    @Scheduled(fixedDelayString = "${app.worklist.sweepMs:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        worklists.values().removeIf(worklist -> now - worklist.loadedAt() > ttlMs);
+    }
+
+    private void evict(Long doctorId) {
+        changeSequence.incrementAndGet();
+        worklists.remove(doctorId);
+    }
+
+    private Worklist getWorklist(Long doctorId) {
+        LocalDate today = LocalDate.now();
+        long now = System.currentTimeMillis();
+        Worklist cached = worklists.get(doctorId);
+        if (cached != null && cached.date().equals(today) && now - cached.loadedAt() <= ttlMs) {
+            return cached;
+        }
+
+        long sequence = changeSequence.get();
+        Map<Long, AppointmentDTO> appointments = new ConcurrentHashMap<>();
+        for (Appointment appointment : appointmentRepository.findConfirmedAppointmentsForDoctorByDate(doctorId,
+                AppointmentServiceImpl.STATUS_CONFIRMED, today)) {
+            appointments.put(appointment.getId(), toDTO(appointment));
+        }
+        Worklist loaded = new Worklist(today, appointments, now);
+
+        // Có thay đổi trong lúc đang tải thì chỉ dùng kết quả cho lần này, không lưu lại
+        worklists.compute(doctorId, (id, existing) -> changeSequence.get() == sequence ? loaded : existing);
+        logger.debug("Loaded worklist of doctor {} for {} with {} appointments", doctorId, today,
+                appointments.size());
+        return loaded;
+    }
+
+    /**
+     * Phương thức chuyển đổi Appointment thành AppointmentDTO
+     */
+    public static AppointmentDTO toDTO(Appointment appointment) {
+        User patient = appointment.getPatient();
+        return AppointmentDTO.builder()
+                .id(appointment.getId())
+                .patientId(patient != null ? patient.getId() : null)
+                .patientName(patient != null ? patient.getFullName() : null)
+                .appointmentType(appointment.getAppointmentType())
+                .status(appointment.getStatus())
+                .symptoms(appointment.getSymptoms())
+                .notes(appointment.getNotes())
+                .isAnonymous(appointment.getIsAnonymous())
+                .timeSlot(appointment.getAppointmentSlot().getTimeSlot().getStartTime() + " - " +
+                        appointment.getAppointmentSlot().getTimeSlot().getEndTime())
+                .date(appointment.getAppointmentSlot().getDoctorSchedule().getScheduleDate())
+                .build();
+    }
+
+    private record Worklist(LocalDate date, Map<Long, AppointmentDTO> appointments, long loadedAt) {
+
+        List<AppointmentDTO> sorted() {
+            return sorted(dto -> true);
+        }
+
+        List<AppointmentDTO> sorted(Predicate<AppointmentDTO> filter) {
+            return appointments.values().stream()
+                    .filter(filter)
+                    .sorted(WORKLIST_ORDER)
+                    .collect(Collectors.toList());
+        }
+    }
+}
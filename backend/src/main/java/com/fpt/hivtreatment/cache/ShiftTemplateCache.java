@@ -0,0 +1,169 @@
+package com.fpt.hivtreatment.cache;
+
+import com.fpt.hivtreatment.model.entity.TimeSlot;
+import com.fpt.hivtreatment.model.entity.WorkShift;
+import com.fpt.hivtreatment.model.entity.WorkShiftTimeSlot;
+import com.fpt.hivtreatment.repository.TimeSlotRepository;
+import com.fpt.hivtreatment.repository.WorkShiftTimeSlotRepository;
+import com.fpt.hivtreatment.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed slot template per WorkShift: the ordered time slots a doctor
+ * schedule on that shift should have.
+ * 
+ * When a shift has explicit WorkShiftTimeSlot rows those are used as-is,
+ * otherwise time slots are filtered by the shift window and break. Templates
+ * are invalidated when shifts, time slots or their mappings change (see
+ * {@link ShiftTemplateCacheListener}) and rebuilt on next access. A template
+ * is also rebuilt if the shift's times no longer match the cached ones.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShiftTemplateCache {
+    private static final Logger logger = LoggerFactory.getLogger(ShiftTemplateCache.class);
+
+    // Slot cuối cùng phải bắt đầu trước giờ kết thúc ca ít nhất 30 phút
+    private static final int LAST_SLOT_LEAD_MINUTES = 30;
+
+    private final TimeSlotRepository timeSlotRepository;
+    private final WorkShiftTimeSlotRepository workShiftTimeSlotRepository;
+
+    private final Map<Long, ShiftTemplate> templates = new ConcurrentHashMap<>();
+    private volatile List<SlotTemplate> allTimeSlots;
+
+    /**
+     * Get the ordered time slots a schedule on the given shift should have.
+     */
+    public List<SlotTemplate> getTimeSlots(WorkShift workShift) {
+        ShiftTemplate template = templates.get(workShift.getId());
+        if (template == null || !template.matches(workShift)) {
+            template = buildTemplate(workShift);
+            templates.put(workShift.getId(), template);
+        }
+        return template.slots();
+    }
+
+    /**
+     * Whether any time slot exists at all.
+     */
+    public boolean hasTimeSlots() {
+        return !loadAllTimeSlots().isEmpty();
+    }
+
+    /**
+     * Drop all templates now and again once the current transaction commits, so
+     * readers never keep a template built from uncommitted data.
+     */
+    public void invalidateAll() {
+        clear();
+        TransactionHooks.afterCompletion(this::clear);
+    }
+
+    private void clear() {
+        templates.clear();
+        allTimeSlots = null;
+    }
+
+    private List<SlotTemplate> loadAllTimeSlots() {
+        List<SlotTemplate> slots = allTimeSlots;
+        if (slots == null) {
+            slots = timeSlotRepository.findAll().stream()
+                    .map(SlotTemplate::of)
+                    .sorted(Comparator.comparing(SlotTemplate::startTime))
+                    .collect(Collectors.toUnmodifiableList());
+            allTimeSlots = slots;
+        }
+        return slots;
+    }
+
+    private ShiftTemplate buildTemplate(WorkShift workShift) {
+        List<WorkShiftTimeSlot> mapped = workShiftTimeSlotRepository.findByWorkShiftId(workShift.getId());
+
+        List<SlotTemplate> slots;
+        if (!mapped.isEmpty()) {
+            slots = mapped.stream()
+                    .map(mapping -> SlotTemplate.of(mapping.getTimeSlot()))
+                    .distinct()
+                    .sorted(Comparator.comparing(SlotTemplate::startTime))
+                    .collect(Collectors.toUnmodifiableList());
+        } else {
+            slots = loadAllTimeSlots().stream()
+                    .filter(slot -> fitsShift(slot, workShift))
+                    .collect(Collectors.toUnmodifiableList());
+        }
+
+        logger.debug("Built slot template for work shift {} with {} time slots ({})", workShift.getId(),
+                slots.size(), mapped.isEmpty() ? "filtered" : "mapped");
+        return new ShiftTemplate(workShift.getStartTime(), workShift.getEndTime(), workShift.getBreakStart(),
+                workShift.getBreakEnd(), slots);
+    }
+
+    private static boolean fitsShift(SlotTemplate slot, WorkShift workShift) {
+        LocalTime slotStart = slot.startTime();
+        LocalTime slotEnd = slot.endTime();
+
+        // Slot phải bắt đầu trong ca làm việc
+        boolean isWithinWorkshift = !slotStart.isBefore(workShift.getStartTime())
+                && !slotStart.isAfter(workShift.getEndTime().minusMinutes(LAST_SLOT_LEAD_MINUTES));
+        if (!isWithinWorkshift) {
+            return false;
+        }
+
+        LocalTime breakStart = workShift.getBreakStart();
+        LocalTime breakEnd = workShift.getBreakEnd();
+        if (breakStart == null || breakEnd == null) {
+            return true;
+        }
+
+        // Slot nằm trong giờ nghỉ nếu bắt đầu, kết thúc trong giờ nghỉ hoặc bao trọn giờ nghỉ
+        boolean isDuringBreak = (slotStart.compareTo(breakStart) >= 0 && slotStart.compareTo(breakEnd) < 0)
+                || (slotEnd.compareTo(breakStart) > 0 && slotEnd.compareTo(breakEnd) <= 0)
+                || (slotStart.compareTo(breakStart) <= 0 && slotEnd.compareTo(breakEnd) >= 0);
+        return !isDuringBreak;
+    }
+
+    /**
+     * Immutable copy of a time slot.
+     */
+    public record SlotTemplate(Long timeSlotId, LocalTime startTime, LocalTime endTime) {
+
+        static SlotTemplate of(TimeSlot timeSlot) {
+            return new SlotTemplate(timeSlot.getId(), timeSlot.getStartTime(), timeSlot.getEndTime());
+        }
+
+        /**
+         * A detached TimeSlot carrying the cached values, usable as an association
+         * reference without loading the row again.
+         */
+        public TimeSlot toReference() {
+            return TimeSlot.builder()
+                    .id(timeSlotId)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .build();
+        }
+    }
+
+    private record ShiftTemplate(LocalTime startTime, LocalTime endTime, LocalTime breakStart, LocalTime breakEnd,
+            List<SlotTemplate> slots) {
+
+        boolean matches(WorkShift workShift) {
+            return Objects.equals(startTime, workShift.getStartTime())
+                    && Objects.equals(endTime, workShift.getEndTime())
+                    && Objects.equals(breakStart, workShift.getBreakStart())
+                    && Objects.equals(breakEnd, workShift.getBreakEnd());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.fpt.hivtreatment.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that invalidates {@link ShiftTemplateCache} whenever a
+ * WorkShift, TimeSlot or WorkShiftTimeSlot is written.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShiftTemplateCacheListener {
+
+    // Resolved lazily: entity listeners are created by Hibernate before repositories exist
+    private final ObjectProvider<ShiftTemplateCache> shiftTemplateCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onShiftTemplateChange(Object entity) {
+        ShiftTemplateCache cache = shiftTemplateCache.getIfAvailable();
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,499 @@
+package com.fpt.hivtreatment.cache;
+
+import com.fpt.hivtreatment.dto.AppointmentSlotDTO;
+import com.fpt.hivtreatment.dto.AppointmentSlotView;
+import com.fpt.hivtreatment.repository.AppointmentSlotRepository;
+import com.fpt.hivtreatment.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory availability index for appointment slots, keyed by (doctorId, date).
+ * 
+ * Each day keeps its slots ordered by start time plus a bitmap of which ones are
+ * still available, so availability browsing is answered from memory. The index
+ * is warmed at startup and patched when slots are booked or released; days that
+ * are regenerated or deleted are evicted and reloaded on next access. Days are
+ * also kept ordered by date to answer "next available slot" searches in a
+ * single pass. Slots held by {@link SlotHoldRegistry} are reported as
+ * unavailable while the hold lasts.
+ * 
+ * Updates made inside a transaction are applied only after it commits. A day
+ * read from the database is only stored if no update was applied to that day
+ * while it was loading. Bookings made by other instances are picked up by a
+ * periodic incremental resync that reads only slots changed since the last run,
+ * and a day older than the TTL is reloaded on access; past days are dropped.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotAvailabilityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SlotAvailabilityIndex.class);
+
+    private final AppointmentSlotRepository appointmentSlotRepository;
+    private final SlotHoldRegistry slotHoldRegistry;
+
+    private final Map<DayKey, DaySlots> days = new ConcurrentHashMap<>();
+    private final Map<Long, DayKey> slotLocations = new ConcurrentHashMap<>();
+    // Time-ordered view of indexed days, used by the next-available search
+    private final NavigableMap<LocalDate, Set<DayKey>> daysByDate = new ConcurrentSkipListMap<>();
+    // Days evicted after a write; reloaded before the next search
+    private final Set<DayKey> staleDays = ConcurrentHashMap.newKeySet();
+
+    // Tăng mỗi lần áp dụng thay đổi; mỗi ngày nhớ số thứ tự của thay đổi gần nhất,
+    // để không lưu dữ liệu của ngày đó đọc trước khi thay đổi được commit
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final Map<DayKey, Long> dayChangedAt = new ConcurrentHashMap<>();
+    // Thay đổi của slot chưa có trong index (không biết thuộc ngày nào)
+    private long unlocatedChangedAt;
+    private final Object writeLock = new Object();
+
+    // Start of the last successful sync; the next resync reads slots changed since then
+    private volatile long lastSyncStartedAt;
+
+    @Value("${app.slots.indexTtlMs:120000}")
+    private long ttlMs;
+
+    // Slots committed late (or clock skew with the database) are still caught by the next run
+    @Value("${app.slots.indexResyncOverlapMs:30000}")
+    private long resyncOverlapMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            LocalDate today = LocalDate.now();
+            long startedAt = System.currentTimeMillis();
+            long sequence = changeSequence.get();
+            List<AppointmentSlotView> slots = appointmentSlotRepository.findViewsFromDate(today);
+            Map<DayKey, List<AppointmentSlotView>> byDay = groupByDay(slots);
+
+            synchronized (writeLock) {
+                byDay.forEach((key, daySlots) -> {
+                    if (!changedSince(key, sequence)) {
+                        putDay(key, daySlots, startedAt);
+                    }
+                });
+            }
+            lastSyncStartedAt = startedAt;
+
+            logger.info("Availability index warmed with {} slots over {} doctor-days from {}",
+                    slots.size(), byDay.size(), today);
+        } catch (Exception e) {
+            // The index fills lazily on access if warm-up fails
+            logger.error("Could not warm availability index", e);
+        }
+    }
+
+    /**
+     * Apply slots created or changed since the last run (e.g. bookings made by
+     * other instances) and drop past days. Availability of indexed slots is
+     * patched in place; a day with new slots, or one changed locally while the
+     * query ran, is reloaded on its own.
+     */
+    @Scheduled(fixedDelayString = "${app.slots.indexResyncMs:60000}",
+            initialDelayString = "${app.slots.indexResyncMs:60000}")
+    public void resync() {
+        try {
+            LocalDate today = LocalDate.now();
+            evictBefore(today);
+
+            long startedAt = System.currentTimeMillis();
+            long sequence = changeSequence.get();
+            Date since = new Date(Math.max(0, lastSyncStartedAt - resyncOverlapMs));
+            List<AppointmentSlotView> changed = appointmentSlotRepository.findViewsChangedSince(today, since);
+
+            int reloaded = 0;
+            for (Map.Entry<DayKey, List<AppointmentSlotView>> entry : groupByDay(changed).entrySet()) {
+                if (!patchDay(entry.getKey(), entry.getValue(), sequence)) {
+                    reloadDay(entry.getKey());
+                    reloaded++;
+                }
+            }
+            lastSyncStartedAt = startedAt;
+
+            if (!changed.isEmpty()) {
+                logger.debug("Availability index synced {} changed slots since {}, {} days reloaded",
+                        changed.size(), since, reloaded);
+            }
+        } catch (Exception e) {
+            // Chưa cập nhật lastSyncStartedAt: lần chạy sau đọc lại từ cùng mốc thời gian
+            logger.error("Could not sync availability index", e);
+        }
+    }
+
+    /**
+     * Get the slots of a doctor on a date, loading the day with the given loader
+     * when it is not indexed or older than the TTL. Days without slots are
+     * indexed too.
+     * 
+     * @return the slots ordered by start time
+     */
+    public List<AppointmentSlotDTO> getSlots(Long doctorId, LocalDate date,
+            Supplier<List<AppointmentSlotView>> loader) {
+        DayKey key = new DayKey(doctorId, date);
+        DaySlots day = days.get(key);
+        long now = System.currentTimeMillis();
+        if (day != null && !day.isExpired(now, ttlMs)) {
+            return day.toDTOs(slotHoldRegistry::isHeld);
+        }
+
+        long sequence = changeSequence.get();
+        List<AppointmentSlotView> slots = loader.get();
+        DaySlots loaded = DaySlots.of(key, slots, now);
+        if (!date.isBefore(LocalDate.now())) {
+            synchronized (writeLock) {
+                // Có thay đổi trong lúc đang tải thì chỉ dùng kết quả cho lần này, không lưu lại
+                if (!changedSince(key, sequence)) {
+                    putDay(key, loaded);
+                }
+            }
+        }
+        return loaded.toDTOs(slotHoldRegistry::isHeld);
+    }
+
+    /**
+     * Find the first available slots from a date onward, across all doctors or
+     * only doctors of one specialty, ordered by date and start time.
+     * 
+     * @param specialty optional specialty filter (case-insensitive), null for any
+     * @param fromDate  first date to search
+     * @param notBefore on fromDate, skip slots starting before this time (may be
+     *                  null)
+     * @param limit     maximum number of slots to return
+     */
+    public List<AppointmentSlotDTO> findNextAvailable(String specialty, LocalDate fromDate, LocalTime notBefore,
+            int limit) {
+        reloadStaleDays(fromDate);
+
+        List<AppointmentSlotDTO> result = new ArrayList<>(limit);
+        for (Map.Entry<LocalDate, Set<DayKey>> entry : daysByDate.tailMap(fromDate, true).entrySet()) {
+            LocalDate date = entry.getKey();
+            LocalTime minStart = date.equals(fromDate) ? notBefore : null;
+
+            List<AppointmentSlotDTO> candidates = new ArrayList<>();
+            for (DayKey key : entry.getValue()) {
+                DaySlots day = days.get(key);
+                if (day != null && day.hasSpecialty(specialty)) {
+                    candidates.addAll(day.availableDTOs(minStart, slotHoldRegistry::isHeld));
+                }
+            }
+
+            candidates.sort(Comparator.comparing(AppointmentSlotDTO::getTimeSlotStart)
+                    .thenComparing(AppointmentSlotDTO::getDoctorId));
+            for (AppointmentSlotDTO candidate : candidates) {
+                result.add(candidate);
+                if (result.size() >= limit) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mark a slot as booked once the current transaction commits.
+     */
+    public void markBooked(Long slotId) {
+        TransactionHooks.afterCommit(() -> setAvailable(slotId, false));
+    }
+
+    /**
+     * Mark a slot as available again once the current transaction commits.
+     */
+    public void markAvailable(Long slotId) {
+        TransactionHooks.afterCommit(() -> setAvailable(slotId, true));
+    }
+
+    /**
+     * Drop a day from the index once the current transaction commits, e.g. when
+     * its slots are regenerated or deleted. It is reloaded on next access.
+     */
+    public void evictDay(Long doctorId, LocalDate date) {
+        if (doctorId == null || date == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            DayKey key = new DayKey(doctorId, date);
+            synchronized (writeLock) {
+                dayChangedAt.put(key, changeSequence.incrementAndGet());
+                staleDays.add(key);
+                removeDay(key);
+            }
+            logger.debug("Evicted availability for doctor {} on {}", doctorId, date);
+        });
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void evictPastDays() {
+        evictBefore(LocalDate.now());
+    }
+
+    private void evictBefore(LocalDate date) {
+        synchronized (writeLock) {
+            for (DayKey key : List.copyOf(days.keySet())) {
+                if (key.date().isBefore(date)) {
+                    removeDay(key);
+                }
+            }
+            daysByDate.headMap(date).clear();
+            staleDays.removeIf(key -> key.date().isBefore(date));
+            dayChangedAt.keySet().removeIf(key -> key.date().isBefore(date));
+        }
+    }
+
+    private static Map<DayKey, List<AppointmentSlotView>> groupByDay(List<AppointmentSlotView> slots) {
+        return slots.stream()
+                .collect(Collectors.groupingBy(slot -> new DayKey(slot.doctorId(), slot.scheduleDate())));
+    }
+
+    /**
+     * Whether the day may have changed after the given sequence was read.
+     * Callers hold the write lock.
+     */
+    private boolean changedSince(DayKey key, long sequence) {
+        return Math.max(dayChangedAt.getOrDefault(key, 0L), unlocatedChangedAt) > sequence;
+    }
+
+    /**
+     * Patch availability of already indexed slots of a day from a resync read.
+     * 
+     * @return false if the day is not indexed, has slots it does not know yet, or
+     *         changed locally since the read; the caller reloads it
+     */
+    private boolean patchDay(DayKey key, List<AppointmentSlotView> changed, long sequence) {
+        synchronized (writeLock) {
+            DaySlots day = days.get(key);
+            if (day == null || changedSince(key, sequence)
+                    || !changed.stream().allMatch(slot -> day.contains(slot.id()))) {
+                return false;
+            }
+            changed.forEach(slot -> day.setAvailable(slot.id(), Boolean.TRUE.equals(slot.isAvailable())));
+            return true;
+        }
+    }
+
+    /**
+     * Reload one day from the database. If it changes again while loading, it is
+     * evicted instead and reloaded on next access.
+     */
+    private void reloadDay(DayKey key) {
+        long sequence = changeSequence.get();
+        List<AppointmentSlotView> slots = appointmentSlotRepository.findViewsByDoctorIdAndDate(key.doctorId(),
+                key.date());
+        synchronized (writeLock) {
+            if (!changedSince(key, sequence)) {
+                putDay(key, slots, System.currentTimeMillis());
+            } else {
+                removeDay(key);
+                staleDays.add(key);
+            }
+        }
+    }
+
+    private void putDay(DayKey key, List<AppointmentSlotView> slots, long loadedAt) {
+        putDay(key, DaySlots.of(key, slots, loadedAt));
+    }
+
+    private void putDay(DayKey key, DaySlots day) {
+        staleDays.remove(key);
+        DaySlots previous = days.put(key, day);
+        if (previous != null) {
+            previous.slotIds().forEach(slotLocations::remove);
+        }
+        day.slotIds().forEach(slotId -> slotLocations.put(slotId, key));
+        daysByDate.computeIfAbsent(key.date(), date -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    private void removeDay(DayKey key) {
+        DaySlots removed = days.remove(key);
+        if (removed != null) {
+            removed.slotIds().forEach(slotLocations::remove);
+        }
+        Set<DayKey> sameDate = daysByDate.get(key.date());
+        if (sameDate != null) {
+            sameDate.remove(key);
+        }
+    }
+
+    /**
+     * Reload days evicted by writes so searches see newly generated slots.
+     */
+    private void reloadStaleDays(LocalDate fromDate) {
+        for (DayKey key : List.copyOf(staleDays)) {
+            if (key.date().isBefore(fromDate)) {
+                continue;
+            }
+            long sequence = changeSequence.get();
+            List<AppointmentSlotView> slots = appointmentSlotRepository.findViewsByDoctorIdAndDate(key.doctorId(),
+                    key.date());
+            synchronized (writeLock) {
+                // Ngày vẫn còn trong staleDays nếu có thay đổi khi đang tải, lần tìm sau tải lại
+                if (!changedSince(key, sequence)) {
+                    putDay(key, slots, System.currentTimeMillis());
+                }
+            }
+        }
+    }
+
+    private void setAvailable(Long slotId, boolean available) {
+        synchronized (writeLock) {
+            long sequence = changeSequence.incrementAndGet();
+            DayKey key = slotLocations.get(slotId);
+            if (key == null) {
+                unlocatedChangedAt = sequence;
+                return;
+            }
+            dayChangedAt.put(key, sequence);
+            DaySlots day = days.get(key);
+            if (day != null) {
+                day.setAvailable(slotId, available);
+            }
+        }
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+
+    /**
+     * Immutable slot details for one day plus a mutable availability bitmap.
+     */
+    private static final class DaySlots {
+        private final LocalDate date;
+        private final String specialty;
+        private final SlotEntry[] entries;
+        private final Map<Long, Integer> positions;
+        private final BitSet available;
+        private final long loadedAt;
+
+        private DaySlots(LocalDate date, String specialty, SlotEntry[] entries, BitSet available, long loadedAt) {
+            this.date = date;
+            this.specialty = specialty;
+            this.entries = entries;
+            this.available = available;
+            this.loadedAt = loadedAt;
+            this.positions = new HashMap<>();
+            for (int i = 0; i < entries.length; i++) {
+                positions.put(entries[i].id(), i);
+            }
+        }
+
+        static DaySlots of(DayKey key, List<AppointmentSlotView> slots, long loadedAt) {
+            List<AppointmentSlotView> ordered = new ArrayList<>(slots);
+            ordered.sort(Comparator.comparing(AppointmentSlotView::startTime));
+
+            SlotEntry[] entries = new SlotEntry[ordered.size()];
+            BitSet available = new BitSet(ordered.size());
+            for (int i = 0; i < ordered.size(); i++) {
+                AppointmentSlotView slot = ordered.get(i);
+                entries[i] = SlotEntry.of(slot);
+                if (Boolean.TRUE.equals(slot.isAvailable())) {
+                    available.set(i);
+                }
+            }
+            String specialty = ordered.isEmpty() ? null : ordered.get(0).specialty();
+            return new DaySlots(key.date(), specialty, entries, available, loadedAt);
+        }
+
+        boolean isExpired(long now, long ttlMs) {
+            return now - loadedAt > ttlMs;
+        }
+
+        boolean hasSpecialty(String wanted) {
+            return wanted == null || wanted.isBlank() || wanted.equalsIgnoreCase(specialty);
+        }
+
+        List<Long> slotIds() {
+            List<Long> ids = new ArrayList<>(entries.length);
+            for (SlotEntry entry : entries) {
+                ids.add(entry.id());
+            }
+            return ids;
+        }
+
+        boolean contains(Long slotId) {
+            return positions.containsKey(slotId);
+        }
+
+        synchronized void setAvailable(Long slotId, boolean value) {
+            Integer position = positions.get(slotId);
+            if (position != null) {
+                available.set(position, value);
+            }
+        }
+
+        List<AppointmentSlotDTO> toDTOs(Predicate<Long> held) {
+            BitSet snapshot = snapshot();
+            List<AppointmentSlotDTO> result = new ArrayList<>(entries.length);
+            for (int i = 0; i < entries.length; i++) {
+                boolean isHeld = snapshot.get(i) && held.test(entries[i].id());
+                result.add(entries[i].toDTO(date, specialty, snapshot.get(i) && !isHeld, isHeld));
+            }
+            return result;
+        }
+
+        List<AppointmentSlotDTO> availableDTOs(LocalTime minStart, Predicate<Long> held) {
+            BitSet snapshot = snapshot();
+            List<AppointmentSlotDTO> result = new ArrayList<>();
+            for (int i = snapshot.nextSetBit(0); i >= 0; i = snapshot.nextSetBit(i + 1)) {
+                if ((minStart == null || !entries[i].startTime().isBefore(minStart)) && !held.test(entries[i].id())) {
+                    result.add(entries[i].toDTO(date, specialty, true, false));
+                }
+            }
+            return result;
+        }
+
+        private synchronized BitSet snapshot() {
+            return (BitSet) available.clone();
+        }
+    }
+
+    private record SlotEntry(Long id, Long doctorScheduleId, Long timeSlotId, Long doctorId,
+            LocalTime startTime, LocalTime endTime, String doctorName, Date createdAt) {
+
+        static SlotEntry of(AppointmentSlotView slot) {
+            String doctorName = slot.doctorName() != null ? slot.doctorName() : "Unknown Doctor";
+            return new SlotEntry(slot.id(), slot.doctorScheduleId(), slot.timeSlotId(), slot.doctorId(),
+                    slot.startTime(), slot.endTime(), doctorName, slot.createdAt());
+        }
+
+        AppointmentSlotDTO toDTO(LocalDate date, String specialty, boolean isAvailable, boolean isHeld) {
+            return AppointmentSlotDTO.builder()
+                    .id(id)
+                    .doctorScheduleId(doctorScheduleId)
+                    .timeSlotId(timeSlotId)
+                    .doctorId(doctorId)
+                    .isAvailable(isAvailable)
+                    .isHeld(isHeld)
+                    .createdAt(createdAt)
+                    .timeSlotStart(startTime.toString())
+                    .timeSlotEnd(endTime.toString())
+                    .doctorName(doctorName)
+                    .specialty(specialty)
+                    .scheduleDate(date.toString())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.fpt.hivtreatment.cache;
+
+import com.fpt.hivtreatment.messaging.AvailabilityEventPublisher;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, in-process holds on appointment slots.
+ * 
+ * A patient holds a slot while filling in the booking form and confirms it
+ * later; nothing is locked or written in the database until confirmation.
+ * Expired holds are ignored on read and removed by a background sweeper.
+ * A patient has at most one hold at a time; taking a new one releases the old.
+ * Holds taken, cancelled or expired are published as availability events.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotHoldRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(SlotHoldRegistry.class);
+
+    private final Map<Long, SlotHold> holdsBySlot = new ConcurrentHashMap<>();
+    private final Map<String, SlotHold> holdsById = new ConcurrentHashMap<>();
+    private final Map<Long, SlotHold> holdsByPatient = new ConcurrentHashMap<>();
+
+    private final AvailabilityEventPublisher availabilityEventPublisher;
+
+    @Value("${app.booking.holdTtlSeconds:300}")
+    private long holdTtlSeconds;
+
+    /**
+     * Hold a slot for a patient, renewing the patient's own hold if present.
+     * 
+     * @return the new hold, or null if another patient holds the slot
+     */
+    public SlotHold hold(Long slotId, Long doctorId, LocalDate date, Long patientId) {
+        Instant now = Instant.now();
+        SlotHold hold = new SlotHold(UUID.randomUUID().toString(), slotId, doctorId, date, patientId,
+                now.plus(Duration.ofSeconds(holdTtlSeconds)));
+
+        SlotHold[] replaced = new SlotHold[1];
+        SlotHold current = holdsBySlot.compute(slotId, (id, existing) -> {
+            if (existing != null && !existing.isExpired(now) && !existing.patientId().equals(patientId)) {
+                return existing;
+            }
+            replaced[0] = existing;
+            return hold;
+        });
+        if (current != hold) {
+            return null;
+        }
+
+        if (replaced[0] != null) {
+            holdsById.remove(replaced[0].holdId());
+            // Hold hết hạn của bệnh nhân khác: bỏ luôn khỏi holdsByPatient, để lần giữ slot sau của họ
+            // không hủy (và báo trống) slot mà bệnh nhân này đang giữ
+            if (!replaced[0].patientId().equals(patientId)) {
+                holdsByPatient.remove(replaced[0].patientId(), replaced[0]);
+            }
+        }
+        holdsById.put(hold.holdId(), hold);
+
+        SlotHold previous = holdsByPatient.put(patientId, hold);
+        if (previous != null && !previous.slotId().equals(slotId)) {
+            cancel(previous);
+        }
+        availabilityEventPublisher.slotHeld(doctorId, date, slotId);
+        return hold;
+    }
+
+    /**
+     * Get a hold by id if it has not expired yet.
+     */
+    public SlotHold getActive(String holdId) {
+        SlotHold hold = holdsById.get(holdId);
+        return hold != null && !hold.isExpired(Instant.now()) ? hold : null;
+    }
+
+    /**
+     * Whether a slot is currently held by anyone.
+     */
+    public boolean isHeld(Long slotId) {
+        SlotHold hold = holdsBySlot.get(slotId);
+        return hold != null && !hold.isExpired(Instant.now());
+    }
+
+    /**
+     * Whether a slot is currently held by someone other than the given patient.
+     */
+    public boolean isHeldByOther(Long slotId, Long patientId) {
+        SlotHold hold = holdsBySlot.get(slotId);
+        return hold != null && !hold.isExpired(Instant.now()) && !hold.patientId().equals(patientId);
+    }
+
+    /**
+     * Release a hold after it was confirmed; the booking publishes its own event.
+     */
+    public void release(SlotHold hold) {
+        holdsBySlot.remove(hold.slotId(), hold);
+        holdsById.remove(hold.holdId(), hold);
+        holdsByPatient.remove(hold.patientId(), hold);
+    }
+
+    /**
+     * Release a hold without booking, making the slot available to others again.
+     */
+    public void cancel(SlotHold hold) {
+        release(hold);
+        availabilityEventPublisher.slotUnheld(hold.doctorId(), hold.date(), hold.slotId());
+    }
+
+    /**
+     * Drop expired holds so their slots show up as available again.
+     */
+    @Scheduled(fixedDelayString = "${app.booking.holdSweepIntervalMs:15000}")
+    public void sweepExpired() {
+        Instant now = Instant.now();
+        int expired = 0;
+        for (SlotHold hold : holdsById.values()) {
+            if (hold.isExpired(now)) {
+                cancel(hold);
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            logger.debug("Released {} expired slot holds", expired);
+        }
+    }
+
+    public record SlotHold(String holdId, Long slotId, Long doctorId, LocalDate date, Long patientId,
+            Instant expiresAt) {
+
+        boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
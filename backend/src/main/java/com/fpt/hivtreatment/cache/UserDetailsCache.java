@@ -0,0 +1,98 @@
+package com.fpt.hivtreatment.cache;
+
+import com.fpt.hivtreatment.security.services.UserDetailsImpl;
+import com.fpt.hivtreatment.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Active users' principals keyed by username, so legacy tokens (without id and
+ * roles in their claims) do not read the users table on every request. Logins
+ * never read from this cache, and cached principals hold no password.
+ * 
+ * Entries expire after a short TTL and are evicted after commit on this
+ * instance whenever the user's role, status, password or profile changes, or
+ * the user is deleted. Changes made on other instances are caught by the token
+ * version check in
+ * {@link com.fpt.hivtreatment.security.services.TokenRevocationRegistry}.
+ * Disabled or unknown users are never cached.
+ */
+@Component
+public class UserDetailsCache {
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsCache.class);
+
+    @Value("${app.security.userCacheSize:5000}")
+    private int maxEntries;
+
+    @Value("${app.security.userCacheTtlMs:60000}")
+    private long ttlMs;
+
+    private final Map<String, CachedUser> users = new ConcurrentHashMap<>();
+
+    // Tăng mỗi lần invalidate, để không lưu principal đọc trước khi thay đổi được commit
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    /**
+     * Cached principal of the user, or load it and cache the result
+     */
+    public UserDetailsImpl get(String username, Supplier<UserDetailsImpl> loader) {
+        CachedUser cached = users.get(username);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.userDetails();
+        }
+
+        long sequence = changeSequence.get();
+        UserDetailsImpl loaded = loader.get();
+
+        if (users.size() >= maxEntries) {
+            makeRoom(now);
+        }
+        users.compute(username, (key, existing) -> changeSequence.get() == sequence
+                ? new CachedUser(loaded, now + ttlMs)
+                : existing);
+        return loaded;
+    }
+
+    /**
+     * Evict the user once the current transaction commits. Must be called by
+     * every change to a user that is part of {@link UserDetailsImpl} or decides
+     * whether the user may sign in.
+     */
+    public void invalidate(String username) {
+        TransactionHooks.afterCommit(() -> {
+            changeSequence.incrementAndGet();
+            users.remove(username);
+            logger.debug("Evicted cached user details of {}", username);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.userCacheSweepMs:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        users.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private void makeRoom(long now) {
+        users.values().removeIf(cached -> cached.expiresAt() <= now);
+
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<CachedUser> iterator = users.values().iterator();
+        while (users.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record CachedUser(UserDetailsImpl userDetails, long expiresAt) {
+    }
+}
@@ -1,23 +1,40 @@
 package com.fpt.hivtreatment.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import com.fpt.hivtreatment.security.jwt.StompAuthChannelInterceptor;
+
+import lombok.RequiredArgsConstructor;
+
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Enable a simple in-memory message broker to send messages to clients
-        // Topics are prefixed with "/topic"
-        registry.enableSimpleBroker("/topic");
+        // Topics are prefixed with "/topic", per-user queues with "/queue"
+        registry.enableSimpleBroker("/topic", "/queue");
 
         // Messages from clients should be prefixed with "/app"
         registry.setApplicationDestinationPrefixes("/app");
+
+        // Clients subscribe to "/user/queue/..." to receive their own notifications
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Authenticate CONNECT frames with the JWT access token
+        registration.interceptors(stompAuthChannelInterceptor);
     }
 
     @Override
@@ -32,4 +49,4 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
-}
\ No newline at end of file
+}
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.fpt.hivtreatment.dto.LoginRequest;
+import com.fpt.hivtreatment.dto.RefreshTokenRequest;
 import com.fpt.hivtreatment.dto.RegisterRequest;
 import com.fpt.hivtreatment.dto.UserResponse;
 import com.fpt.hivtreatment.security.services.UserDetailsImpl;
@@ -59,14 +60,11 @@ public class AuthController {
      * 
      * @return Thông tin của người dùng đang đăng nhập
      */
-<<<<<<< HEAD
     @Operation(summary = "Lấy thông tin người dùng hiện tại", description = "Trả về thông tin người dùng đã đăng nhập dựa trên JWT token")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lấy thông tin thành công", content = @Content(mediaType = "application/json")),
             @ApiResponse(responseCode = "401", description = "Chưa xác thực hoặc token không hợp lệ", content = @Content(mediaType = "application/json"))
     })
-=======
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
     @GetMapping("/user")
     public ResponseEntity<?> getCurrentUser() {
         try {
@@ -76,10 +74,6 @@ public class AuthController {
                     authentication.getPrincipal() instanceof UserDetailsImpl) {
 
                 UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-<<<<<<< HEAD
-=======
-                logger.info("Current authenticated user: {}, ID: {}", userDetails.getUsername(), userDetails.getId());
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
 
                 Map<String, Object> response = new HashMap<>();
                 response.put("id", userDetails.getId());
@@ -91,31 +85,20 @@ public class AuthController {
 
                 return ResponseEntity.ok(response);
             } else {
-<<<<<<< HEAD
-=======
-                logger.warn("Authentication context found but user not properly authenticated");
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(errorResponse("User not authenticated"));
             }
         } catch (Exception e) {
-<<<<<<< HEAD
-=======
-            logger.error("Error retrieving current user: ", e);
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(errorResponse("Error retrieving current user: " + e.getMessage()));
         }
     }
 
-<<<<<<< HEAD
     @Operation(summary = "Đăng nhập", description = "Đăng nhập vào hệ thống và nhận JWT token")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Đăng nhập thành công", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserResponse.class))),
             @ApiResponse(responseCode = "401", description = "Sai tên đăng nhập hoặc mật khẩu", content = @Content(mediaType = "application/json"))
     })
-=======
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
@@ -133,6 +116,40 @@ public class AuthController {
         }
     }
 
+    @Operation(summary = "Làm mới token", description = "Đổi refresh token lấy access token mới; refresh token cũ không dùng lại được")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Làm mới token thành công", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Refresh token không hợp lệ, đã dùng hoặc đã hết hạn", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/refresh-token")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            UserResponse userResponse = authService.refreshToken(request.getRefreshToken());
+            return ResponseEntity.ok(userResponse);
+        } catch (BadCredentialsException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(errorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(errorResponse("An error occurred while refreshing token: " + e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Đăng xuất", description = "Thu hồi refresh token của phiên đăng nhập")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Đăng xuất thành công", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            authService.logout(request.getRefreshToken());
+            return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(errorResponse("An error occurred during logout: " + e.getMessage()));
+        }
+    }
+
     @Operation(summary = "Đăng ký", description = "Đăng ký tài khoản mới vào hệ thống")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Đăng ký thành công", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserResponse.class))),
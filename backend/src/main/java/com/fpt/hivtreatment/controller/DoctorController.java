@@ -12,10 +12,8 @@ import java.util.stream.Collectors;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.time.LocalDate;
 
-import com.fpt.hivtreatment.repository.AppointmentRepository;
-import com.fpt.hivtreatment.model.entity.Appointment;
+import com.fpt.hivtreatment.cache.DoctorWorklistCache;
 import com.fpt.hivtreatment.dto.AppointmentDTO;
 
 /**
@@ -29,7 +27,7 @@ public class DoctorController {
     private DoctorProfileRepository doctorProfileRepository;
 
     @Autowired
-    private AppointmentRepository appointmentRepository;
+    private DoctorWorklistCache doctorWorklistCache;
 
     /**
      * Simple API test endpoint that doesn't require authentication
@@ -119,18 +117,8 @@ public class DoctorController {
                 return ResponseEntity.status(404).body(response);
             }
 
-            // Lấy ngày hôm nay
-            LocalDate today = LocalDate.now();
-
-            // Chỉ lấy các lịch hẹn có trạng thái "Đã xác nhận"
-            String confirmedStatus = "Đã xác nhận";
-            List<Appointment> appointments = appointmentRepository.findConfirmedAppointmentsForDoctorByDate(
-                    doctorId, confirmedStatus, today);
-
-            // Chuyển thành DTO và trả về
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(this::convertToAppointmentDTO)
-                    .collect(Collectors.toList());
+            // Chỉ lấy các lịch hẹn có trạng thái "Đã xác nhận" (từ danh sách trong ngày đã lưu)
+            List<AppointmentDTO> appointmentDTOs = doctorWorklistCache.getConfirmedToday(doctorId);
 
             return ResponseEntity.ok(appointmentDTOs);
         } catch (Exception e) {
@@ -155,19 +143,8 @@ public class DoctorController {
                 return ResponseEntity.status(404).body(response);
             }
 
-            // Lấy ngày hôm nay
-            LocalDate today = LocalDate.now();
-
             // Chỉ lấy các lịch tư vấn có trạng thái "Đã xác nhận"
-            String confirmedStatus = "Đã xác nhận";
-            String appointmentType = "Tư vấn";
-            List<Appointment> consultations = appointmentRepository.findAppointmentsByTypeAndStatusForDoctorByDate(
-                    doctorId, appointmentType, confirmedStatus, today);
-
-            // Chuyển thành DTO và trả về
-            List<AppointmentDTO> consultationDTOs = consultations.stream()
-                    .map(this::convertToAppointmentDTO)
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> consultationDTOs = doctorWorklistCache.getConsultationsToday(doctorId);
 
             return ResponseEntity.ok(consultationDTOs);
         } catch (Exception e) {
@@ -193,20 +170,9 @@ public class DoctorController {
                 return ResponseEntity.status(404).body(response);
             }
 
-            // Lấy ngày hôm nay
-            LocalDate today = LocalDate.now();
-
             // Chỉ lấy các lịch khám bệnh có trạng thái "Đã xác nhận" và không phải loại "Tư
             // vấn"
-            String confirmedStatus = "Đã xác nhận";
-            String appointmentType = "Tư vấn";
-            List<Appointment> appointments = appointmentRepository.findAppointmentsExcludeTypeAndStatusForDoctorByDate(
-                    doctorId, appointmentType, confirmedStatus, today);
-
-            // Chuyển thành DTO và trả về
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(this::convertToAppointmentDTO)
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointmentDTOs = doctorWorklistCache.getMedicalAppointmentsToday(doctorId);
 
             return ResponseEntity.ok(appointmentDTOs);
         } catch (Exception e) {
@@ -235,24 +201,4 @@ public class DoctorController {
                 .isActive(true) // Default to true since we removed this field
                 .build();
     }
-
-    /**
-     * Phương thức chuyển đổi Appointment thành AppointmentDTO
-     */
-    private AppointmentDTO convertToAppointmentDTO(Appointment appointment) {
-        User patient = appointment.getPatient();
-        return AppointmentDTO.builder()
-                .id(appointment.getId())
-                .patientId(patient.getId())
-                .patientName(patient.getFullName())
-                .appointmentType(appointment.getAppointmentType())
-                .status(appointment.getStatus())
-                .symptoms(appointment.getSymptoms())
-                .notes(appointment.getNotes())
-                .isAnonymous(appointment.getIsAnonymous())
-                .timeSlot(appointment.getAppointmentSlot().getTimeSlot().getStartTime() + " - " +
-                        appointment.getAppointmentSlot().getTimeSlot().getEndTime())
-                .date(appointment.getAppointmentSlot().getDoctorSchedule().getScheduleDate())
-                .build();
-    }
 }
\ No newline at end of file
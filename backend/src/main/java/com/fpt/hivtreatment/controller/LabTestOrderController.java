@@ -485,11 +485,12 @@ public class LabTestOrderController {
     @GetMapping("/statistics")
     public ResponseEntity<?> getOrderStatistics() {
         try {
+            Map<String, Long> counts = labTestOrderService.countOrdersGroupedByStatus();
             Map<String, Object> stats = new HashMap<>();
-            stats.put("pendingPayment", labTestOrderService.countOrdersByStatus("Chờ thanh toán"));
-            stats.put("pendingSample", labTestOrderService.countOrdersByStatus("Chờ lấy mẫu"));
-            stats.put("processing", labTestOrderService.countOrdersByStatus("Đang xử lý"));
-            stats.put("completed", labTestOrderService.countOrdersByStatus("Có kết quả"));
+            stats.put("pendingPayment", counts.getOrDefault("Chờ thanh toán", 0L));
+            stats.put("pendingSample", counts.getOrDefault("Chờ lấy mẫu", 0L));
+            stats.put("processing", counts.getOrDefault("Đang xử lý", 0L));
+            stats.put("completed", counts.getOrDefault("Có kết quả", 0L));
 
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -13,7 +14,11 @@ import com.fpt.hivtreatment.dto.AppointmentSlotDTO;
 import com.fpt.hivtreatment.dto.DoctorScheduleDTO;
 import com.fpt.hivtreatment.dto.UserResponse;
 import com.fpt.hivtreatment.model.entity.Role;
+import com.fpt.hivtreatment.payload.request.AppointmentStatusBatchRequest;
+import com.fpt.hivtreatment.payload.request.BulkGenerateAppointmentSlotsRequest;
 import com.fpt.hivtreatment.payload.request.GenerateAppointmentSlotsRequest;
+import com.fpt.hivtreatment.payload.response.BulkSlotGenerationResponse;
+import com.fpt.hivtreatment.scheduler.StaleAppointmentSweeper;
 import com.fpt.hivtreatment.service.AppointmentService;
 import com.fpt.hivtreatment.service.AppointmentSlotService;
 import com.fpt.hivtreatment.service.DoctorScheduleService;
@@ -40,6 +45,7 @@ public class ManagerController {
     private final AppointmentSlotService appointmentSlotService;
     private final DoctorProfileRepository doctorProfileRepository;
     private final AppointmentService appointmentService;
+    private final StaleAppointmentSweeper staleAppointmentSweeper;
 
     /**
      * API lấy danh sách bác sĩ (từ bảng user)
@@ -215,6 +221,24 @@ public class ManagerController {
         }
     }
 
+    /**
+     * API tạo appointment slots hàng loạt cho nhiều bác sĩ trong khoảng ngày
+     */
+    @PostMapping("/appointment-slots/generate-bulk")
+    public ResponseEntity<?> generateAppointmentSlotsInBulk(
+            @Valid @RequestBody BulkGenerateAppointmentSlotsRequest request) {
+        try {
+            BulkSlotGenerationResponse result = appointmentSlotService.generateAppointmentSlotsInBulk(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Dữ liệu không hợp lệ: " + e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Lỗi khi tạo slot khám bệnh hàng loạt: " + e.getMessage()));
+        }
+    }
+
     /**
      * API lấy danh sách appointment slots theo doctor schedule
      */
@@ -274,48 +298,39 @@ public class ManagerController {
      */
     @GetMapping("/appointment-stats")
     public ResponseEntity<?> getAppointmentStatistics() {
-<<<<<<< HEAD
-=======
-        logger.info("Nhận yêu cầu lấy thống kê lịch hẹn");
-
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
         try {
             Map<String, Object> stats = new HashMap<>();
 
-            // Lấy số lượng lịch hẹn theo trạng thái
-            long pendingCount = appointmentService.countAppointmentsByStatus("Chờ xác nhận");
-            long approvedCount = appointmentService.countAppointmentsByStatus("Đã xác nhận");
-            long cancelledCount = appointmentService.countAppointmentsByStatus("Đã hủy");
-            long completedCount = appointmentService.countAppointmentsByStatus("Hoàn thành");
+            // Lấy số lượng lịch hẹn theo trạng thái (từ bộ đếm trong bộ nhớ)
+            Map<String, Long> counts = appointmentService.getAppointmentStatusCounts();
+            long pendingCount = counts.getOrDefault("Chờ xác nhận", 0L);
+            long approvedCount = counts.getOrDefault("Đã xác nhận", 0L);
+            long cancelledCount = counts.getOrDefault("Đã hủy", 0L);
+            long completedCount = counts.getOrDefault("Hoàn thành", 0L);
+            long noShowCount = counts.getOrDefault("Không đến", 0L);
 
             // Tính tổng số lịch hẹn
-            long totalCount = pendingCount + approvedCount + cancelledCount + completedCount;
+            long totalCount = pendingCount + approvedCount + cancelledCount + completedCount + noShowCount;
 
             // Đóng gói kết quả
             stats.put("pendingCount", pendingCount);
             stats.put("approvedCount", approvedCount);
             stats.put("cancelledCount", cancelledCount);
             stats.put("completedCount", completedCount);
+            stats.put("noShowCount", noShowCount);
             stats.put("totalCount", totalCount);
 
-<<<<<<< HEAD
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-=======
-            logger.info("Thống kê lịch hẹn: chờ xác nhận={}, đã xác nhận={}, đã hủy={}, hoàn thành={}, tổng={}",
-                    pendingCount, approvedCount, cancelledCount, completedCount, totalCount);
-
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
-            logger.error("Lỗi khi lấy thống kê lịch hẹn", e);
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Lỗi khi lấy thống kê lịch hẹn: " + e.getMessage()));
         }
     }
 
     /**
-     * API lấy danh sách lịch hẹn theo trạng thái hoặc khoảng thời gian
+     * API lấy danh sách lịch hẹn theo trạng thái hoặc khoảng thời gian.
+     * Mặc định phân trang offset (page/size) như cũ. Gửi mode=cursor để lấy trang
+     * đầu theo con trỏ, rồi truyền nextCursor của trang trước để lấy trang sau.
      */
     @GetMapping("/appointments")
     public ResponseEntity<?> getAppointments(
@@ -324,29 +339,80 @@ public class ManagerController {
             @RequestParam(required = false) String endDate,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "5") int limit) {
-
-<<<<<<< HEAD
-=======
-        logger.info(
-                "Nhận yêu cầu lấy danh sách lịch hẹn với status={}, startDate={}, endDate={}, page={}, size={}, limit={}",
-                status, startDate, endDate, page, size, limit);
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String mode,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
 
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
         try {
-            Map<String, Object> result = appointmentService.getAppointmentsForManager(status, startDate, endDate, page,
-                    size, limit);
+            Map<String, Object> result;
+            if (cursor != null || "cursor".equalsIgnoreCase(mode)) {
+                // limit nhỏ hơn size thì chỉ lấy đúng số dòng cần, không cắt trang trong bộ nhớ
+                int pageSize = limit > 0 && limit < size ? limit : size;
+                result = appointmentService.getAppointmentsForManagerByCursor(status, startDate, endDate, cursor,
+                        pageSize, includeTotal);
+            } else {
+                result = appointmentService.getAppointmentsForManager(status, startDate, endDate, page, size, limit);
+            }
             return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
-<<<<<<< HEAD
-=======
-            logger.error("Lỗi khi lấy danh sách lịch hẹn", e);
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Lỗi khi lấy danh sách lịch hẹn: " + e.getMessage()));
         }
     }
 
+    /**
+     * API thống kê lịch hẹn theo khoảng thời gian (ngày/tuần/tháng), gộp theo
+     * trạng thái, bác sĩ hoặc loại khám. Trả về chuỗi số liệu gọn thay vì danh
+     * sách lịch hẹn.
+     */
+    @GetMapping("/appointments/analytics")
+    public ResponseEntity<?> getAppointmentAnalytics(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(defaultValue = "status") String groupBy) {
+        try {
+            return ResponseEntity.ok(
+                    appointmentService.getAppointmentAnalytics(startDate, endDate, granularity, groupBy));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Lỗi khi lấy thống kê lịch hẹn: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * API xem số lịch hẹn tồn đọng đã được tự động chuyển trạng thái
+     */
+    @GetMapping("/appointments/sweeper-stats")
+    public ResponseEntity<?> getSweeperStats() {
+        return ResponseEntity.ok(staleAppointmentSweeper.getStats());
+    }
+
+    /**
+     * API cập nhật trạng thái nhiều lịch hẹn trong một yêu cầu (ví dụ: xác nhận
+     * hàng loạt buổi sáng). Trả về kết quả cho từng lịch hẹn.
+     */
+    @PutMapping("/appointments/status/batch")
+    public ResponseEntity<?> updateAppointmentStatusBatch(
+            @Valid @RequestBody AppointmentStatusBatchRequest request) {
+        try {
+            return ResponseEntity.ok(appointmentService.updateAppointmentStatusBatch(request.getItems()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Có lịch hẹn đã được người khác cập nhật, vui lòng tải lại"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Lỗi khi cập nhật trạng thái lịch hẹn: " + e.getMessage()));
+        }
+    }
+
     /**
      * API cập nhật trạng thái lịch hẹn
      */
@@ -357,28 +423,23 @@ public class ManagerController {
 
         String status = statusUpdate.get("status");
         String cancellationReason = statusUpdate.get("cancellationReason");
+        // Phiên bản lịch hẹn client đang xem (tùy chọn), dùng để phát hiện cập nhật đồng thời
+        String version = statusUpdate.get("version");
 
-<<<<<<< HEAD
-=======
-        logger.info("Nhận yêu cầu cập nhật trạng thái lịch hẹn id={} thành {}, lý do={}",
-                id, status, cancellationReason);
-
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
         try {
-            Map<String, Object> result = appointmentService.updateAppointmentStatus(id, status, cancellationReason);
+            Long expectedVersion = version != null && !version.isEmpty() ? Long.valueOf(version) : null;
+            Map<String, Object> result = appointmentService.updateAppointmentStatus(id, status, cancellationReason,
+                    expectedVersion);
             return ResponseEntity.ok(result);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Phiên bản không hợp lệ: " + version));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Lịch hẹn đã được người khác cập nhật, vui lòng tải lại"));
         } catch (ResourceNotFoundException e) {
-<<<<<<< HEAD
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("message", "Không tìm thấy lịch hẹn: " + e.getMessage()));
-        } catch (Exception e) {
-=======
-            logger.error("Không tìm thấy lịch hẹn để cập nhật: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("message", "Không tìm thấy lịch hẹn: " + e.getMessage()));
         } catch (Exception e) {
-            logger.error("Lỗi khi cập nhật trạng thái lịch hẹn", e);
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Lỗi khi cập nhật trạng thái lịch hẹn: " + e.getMessage()));
         }
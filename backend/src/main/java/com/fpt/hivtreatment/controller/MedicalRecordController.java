@@ -211,12 +211,16 @@ public class MedicalRecordController {
     @PreAuthorize("hasAuthority('3') or hasAuthority('4') or hasAuthority('5')") // Staff, Admin, Manager
     public ResponseEntity<?> getStatistics() {
         try {
+            Map<String, Long> counts = medicalRecordService.countMedicalRecordsGroupedByStatus();
+            long inTreatment = counts.getOrDefault("Đang điều trị", 0L);
+            long completed = counts.getOrDefault("Hoàn thành", 0L);
+
             Map<String, Object> stats = new HashMap<>();
-            stats.put("inTreatment", medicalRecordService.countMedicalRecordsByStatus("Đang điều trị"));
-            stats.put("completed", medicalRecordService.countMedicalRecordsByStatus("Hoàn thành"));
+            stats.put("inTreatment", inTreatment);
+            stats.put("completed", completed);
 
             // Calculate total
-            long total = (long) stats.get("inTreatment") + (long) stats.get("completed");
+            long total = inTreatment + completed;
             stats.put("total", total);
 
             return ResponseEntity.ok(stats);
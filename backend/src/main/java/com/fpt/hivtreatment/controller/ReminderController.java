@@ -206,6 +206,7 @@ public class ReminderController {
         response.setPatientId(reminder.getPatientId());
         response.setPrescriptionId(reminder.getPrescriptionId());
         response.setMedicalRecordId(reminder.getMedicalRecordId());
+        response.setAppointmentId(reminder.getAppointmentId());
         response.setReminderType(reminder.getReminderType());
         response.setTitle(reminder.getTitle());
         response.setMessage(reminder.getMessage());
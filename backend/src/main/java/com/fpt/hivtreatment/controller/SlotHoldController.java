@@ -0,0 +1,113 @@
+package com.fpt.hivtreatment.controller;
+
+import com.fpt.hivtreatment.exception.ResourceNotFoundException;
+import com.fpt.hivtreatment.exception.SlotUnavailableException;
+import com.fpt.hivtreatment.payload.request.AppointmentRequest;
+import com.fpt.hivtreatment.payload.response.AppointmentResponse;
+import com.fpt.hivtreatment.payload.response.SlotHoldResponse;
+import com.fpt.hivtreatment.security.services.UserDetailsImpl;
+import com.fpt.hivtreatment.service.SlotHoldService;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controller giữ chỗ appointment slot: bệnh nhân giữ slot trong vài phút khi
+ * điền thông tin, sau đó xác nhận thành lịch hẹn. Giữ chỗ tự hết hạn.
+ */
+@RestController
+@RequestMapping("/api/patient/slot-holds")
+@RequiredArgsConstructor
+@PreAuthorize("hasAuthority('1')") // Patient role (role_id = 1)
+public class SlotHoldController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotHoldController.class);
+
+    private final SlotHoldService slotHoldService;
+
+    /**
+     * API giữ chỗ một appointment slot
+     */
+    @PostMapping
+    public ResponseEntity<?> holdSlot(@RequestParam Long slotId) {
+        Long patientId = getCurrentUserId();
+        if (patientId == null) {
+            return unauthorized();
+        }
+
+        try {
+            SlotHoldResponse hold = slotHoldService.holdSlot(patientId, slotId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (SlotUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Slot này đã được đặt hoặc đang được giữ chỗ"));
+        }
+    }
+
+    /**
+     * API xác nhận giữ chỗ thành lịch hẹn
+     */
+    @PostMapping("/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable String holdId, @RequestBody AppointmentRequest request) {
+        Long patientId = getCurrentUserId();
+        if (patientId == null) {
+            return unauthorized();
+        }
+
+        try {
+            AppointmentResponse result = slotHoldService.confirmHold(patientId, holdId, request);
+            return ResponseEntity.ok(result);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(Map.of("message", e.getMessage()));
+        } catch (SlotUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Slot này đã được đặt"));
+        } catch (Exception e) {
+            logger.error("Error confirming slot hold {}", holdId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Lỗi khi đặt lịch hẹn: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * API hủy giữ chỗ
+     */
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable String holdId) {
+        Long patientId = getCurrentUserId();
+        if (patientId == null) {
+            return unauthorized();
+        }
+
+        try {
+            slotHoldService.releaseHold(patientId, holdId);
+            return ResponseEntity.noContent().build();
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl) {
+            return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+
+    private ResponseEntity<?> unauthorized() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("message", "Không thể xác thực người dùng. Vui lòng đăng nhập lại."));
+    }
+}
@@ -0,0 +1,109 @@
+package com.fpt.hivtreatment.controller;
+
+import com.fpt.hivtreatment.exception.ResourceNotFoundException;
+import com.fpt.hivtreatment.payload.request.WaitlistRequest;
+import com.fpt.hivtreatment.payload.response.WaitlistResponse;
+import com.fpt.hivtreatment.security.services.UserDetailsImpl;
+import com.fpt.hivtreatment.service.WaitlistService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller danh sách chờ lịch hẹn của bệnh nhân.
+ * Khi một lịch hẹn bị hủy, slot được tự động xếp cho người chờ đầu tiên và
+ * thông báo qua STOMP tại /user/queue/waitlist (phiên STOMP kết nối kèm access token)
+ */
+@RestController
+@RequestMapping("/api/patient/waitlist")
+@RequiredArgsConstructor
+@PreAuthorize("hasAuthority('1')") // Patient role (role_id = 1)
+public class WaitlistController {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistController.class);
+
+    private final WaitlistService waitlistService;
+
+    /**
+     * API đăng ký chờ slot của bác sĩ trong một ngày
+     */
+    @PostMapping
+    public ResponseEntity<?> joinWaitlist(@Valid @RequestBody WaitlistRequest request) {
+        Long patientId = getCurrentUserId();
+        if (patientId == null) {
+            return unauthorized();
+        }
+
+        try {
+            WaitlistResponse result = waitlistService.joinWaitlist(patientId, request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error joining waitlist", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Lỗi khi đăng ký danh sách chờ: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * API xem danh sách chờ của bệnh nhân
+     */
+    @GetMapping
+    public ResponseEntity<?> getMyWaitlist() {
+        Long patientId = getCurrentUserId();
+        if (patientId == null) {
+            return unauthorized();
+        }
+
+        List<WaitlistResponse> entries = waitlistService.getWaitlistByPatient(patientId);
+        return ResponseEntity.ok(entries);
+    }
+
+    /**
+     * API rời danh sách chờ
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> leaveWaitlist(@PathVariable Long id) {
+        Long patientId = getCurrentUserId();
+        if (patientId == null) {
+            return unauthorized();
+        }
+
+        try {
+            return ResponseEntity.ok(waitlistService.leaveWaitlist(patientId, id));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl) {
+            return ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+
+    private ResponseEntity<?> unauthorized() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("message", "Không thể xác thực người dùng. Vui lòng đăng nhập lại."));
+    }
+}
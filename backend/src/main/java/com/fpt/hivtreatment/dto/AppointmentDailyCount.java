@@ -0,0 +1,17 @@
+package com.fpt.hivtreatment.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Number of appointments on one schedule date for one doctor, status and
+ * appointment type. Analytics series are rolled up from these rows, so a
+ * report never has to load individual appointments.
+ */
+public record AppointmentDailyCount(
+        LocalDate date,
+        Long doctorId,
+        String doctorName,
+        String status,
+        String appointmentType,
+        Long count) {
+}
@@ -0,0 +1,30 @@
+package com.fpt.hivtreatment.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Date;
+
+/**
+ * Flat read model of an appointment with every field shown in appointment
+ * lists, loaded with one JPQL constructor query so listing a page never
+ * triggers per-row loads of patient, doctor, slot, schedule or time slot.
+ */
+public record AppointmentListView(
+        Long id,
+        Long patientId,
+        String patientName,
+        Long doctorId,
+        String doctorName,
+        Long appointmentSlotId,
+        String appointmentType,
+        String status,
+        Boolean isAnonymous,
+        String symptoms,
+        String notes,
+        String cancellationReason,
+        Date createdAt,
+        LocalDate scheduleDate,
+        LocalTime startTime,
+        LocalTime endTime,
+        Long version) {
+}
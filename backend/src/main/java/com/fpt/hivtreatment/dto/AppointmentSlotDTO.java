@@ -17,11 +17,13 @@ public class AppointmentSlotDTO {
     private Long timeSlotId;
     private Long doctorId;
     private Boolean isAvailable;
+    private Boolean isHeld; // đang được giữ chỗ tạm thời
     private Date createdAt;
 
     // Thêm trường thông tin bổ sung cho frontend
     private String timeSlotStart;
     private String timeSlotEnd;
     private String doctorName;
+    private String specialty;
     private String scheduleDate;
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.fpt.hivtreatment.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Date;
+
+/**
+ * Flat read model of an appointment slot, loaded with one JPQL constructor
+ * query instead of walking the lazy schedule / time slot / doctor associations.
+ */
+public record AppointmentSlotView(
+        Long id,
+        Long doctorScheduleId,
+        Long timeSlotId,
+        Long doctorId,
+        Boolean isAvailable,
+        Date createdAt,
+        LocalTime startTime,
+        LocalTime endTime,
+        LocalDate scheduleDate,
+        String doctorName,
+        String specialty) {
+
+    public AppointmentSlotDTO toDTO() {
+        return AppointmentSlotDTO.builder()
+                .id(id)
+                .doctorScheduleId(doctorScheduleId)
+                .timeSlotId(timeSlotId)
+                .doctorId(doctorId)
+                .isAvailable(isAvailable)
+                .createdAt(createdAt)
+                .timeSlotStart(startTime.toString())
+                .timeSlotEnd(endTime.toString())
+                .doctorName(doctorName != null ? doctorName : "Unknown Doctor")
+                .specialty(specialty)
+                .scheduleDate(scheduleDate.toString())
+                .build();
+    }
+}
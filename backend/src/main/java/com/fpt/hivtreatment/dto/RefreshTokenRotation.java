@@ -0,0 +1,10 @@
+package com.fpt.hivtreatment.dto;
+
+/**
+ * Result of exchanging a refresh token
+ *
+ * @param userId       owner of the token
+ * @param refreshToken the new refresh token that replaces the one presented
+ */
+public record RefreshTokenRotation(Long userId, String refreshToken) {
+}
@@ -0,0 +1,18 @@
+package com.fpt.hivtreatment.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * An upcoming appointment that still needs a reminder, with just the fields
+ * used to write the reminder text.
+ */
+public record ReminderCandidate(
+        Long appointmentId,
+        Long patientId,
+        String patientUsername,
+        String appointmentType,
+        String doctorName,
+        LocalDate scheduleDate,
+        LocalTime startTime) {
+}
@@ -0,0 +1,13 @@
+package com.fpt.hivtreatment.dto;
+
+/**
+ * Outcome of one reminder dispatch batch
+ *
+ * @param created           reminders written in this batch
+ * @param lastAppointmentId last appointment id scanned, the keyset for the
+ *                          next batch
+ * @param hasMore           whether the batch was full, so more candidates may
+ *                          follow
+ */
+public record ReminderDispatchResult(int created, long lastAppointmentId, boolean hasMore) {
+}
@@ -0,0 +1,28 @@
+package com.fpt.hivtreatment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Delta event pushed to /topic/availability.{doctorId}.{date}.
+ * 
+ * BOOKED / RELEASED / HELD / UNHELD: slotIds changed state.
+ * CHANGED: slots were added (slots) and/or removed (slotIds).
+ * RELOAD: the day changed in bulk, clients should re-fetch it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotAvailabilityEvent {
+    private String type;
+    private Long doctorId;
+    private String date;
+    private List<Long> slotIds;
+    private List<AppointmentSlotDTO> slots;
+    private long timestamp;
+}
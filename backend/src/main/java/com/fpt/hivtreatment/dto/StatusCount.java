@@ -0,0 +1,7 @@
+package com.fpt.hivtreatment.dto;
+
+/**
+ * One row of a GROUP BY status count
+ */
+public record StatusCount(String status, Long count) {
+}
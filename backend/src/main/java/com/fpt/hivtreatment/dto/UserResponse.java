@@ -23,6 +23,7 @@ public class UserResponse {
     private String roleName;
     private List<String> roles;
     private String token;
+    private String refreshToken;
     private String gender;
     private Date dateOfBirth;
     private String profileImage;
@@ -0,0 +1,13 @@
+package com.fpt.hivtreatment.dto;
+
+/**
+ * Account state checked against access tokens: whether the account is active
+ * and the token version tokens must carry
+ */
+public record UserTokenState(Boolean active, Integer tokenVersion) {
+
+    public boolean accepts(Integer version) {
+        int current = tokenVersion != null ? tokenVersion : 0;
+        return !Boolean.FALSE.equals(active) && current == (version != null ? version : 0);
+    }
+}
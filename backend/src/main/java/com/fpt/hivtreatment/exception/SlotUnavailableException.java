@@ -0,0 +1,31 @@
+package com.fpt.hivtreatment.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an appointment slot has already been claimed by another booking.
+ * Extends IllegalStateException so existing "slot already booked" handlers
+ * keep mapping it to 409 Conflict.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SlotUnavailableException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long slotId;
+
+    public SlotUnavailableException(Long slotId) {
+        super("This appointment slot is already booked");
+        this.slotId = slotId;
+    }
+
+    public SlotUnavailableException(Long slotId, String message) {
+        super(message);
+        this.slotId = slotId;
+    }
+
+    public Long getSlotId() {
+        return slotId;
+    }
+}
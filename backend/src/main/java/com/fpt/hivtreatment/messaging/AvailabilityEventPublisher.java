@@ -0,0 +1,94 @@
+package com.fpt.hivtreatment.messaging;
+
+import com.fpt.hivtreatment.dto.AppointmentSlotDTO;
+import com.fpt.hivtreatment.dto.SlotAvailabilityEvent;
+import com.fpt.hivtreatment.model.entity.AppointmentSlot;
+import com.fpt.hivtreatment.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Publishes slot availability deltas on /topic/availability.{doctorId}.{date}
+ * so booking screens update without re-querying the REST endpoints.
+ * 
+ * Events raised inside a transaction are sent only after it commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityEventPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityEventPublisher.class);
+
+    public static final String BOOKED = "BOOKED";
+    public static final String RELEASED = "RELEASED";
+    public static final String HELD = "HELD";
+    public static final String UNHELD = "UNHELD";
+    public static final String CHANGED = "CHANGED";
+    public static final String RELOAD = "RELOAD";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public void slotBooked(AppointmentSlot slot) {
+        slotEvent(BOOKED, slot);
+    }
+
+    public void slotReleased(AppointmentSlot slot) {
+        slotEvent(RELEASED, slot);
+    }
+
+    public void slotHeld(Long doctorId, LocalDate date, Long slotId) {
+        publish(event(HELD, doctorId, date).slotIds(List.of(slotId)).build());
+    }
+
+    public void slotUnheld(Long doctorId, LocalDate date, Long slotId) {
+        publish(event(UNHELD, doctorId, date).slotIds(List.of(slotId)).build());
+    }
+
+    /**
+     * Slots of a day were regenerated: some added, some removed.
+     */
+    public void slotsChanged(Long doctorId, LocalDate date, List<AppointmentSlotDTO> added, List<Long> removedIds) {
+        publish(event(CHANGED, doctorId, date).slots(added).slotIds(removedIds).build());
+    }
+
+    /**
+     * A day changed in a way that is not worth describing slot by slot.
+     */
+    public void dayChanged(Long doctorId, LocalDate date) {
+        if (doctorId == null || date == null) {
+            return;
+        }
+        publish(event(RELOAD, doctorId, date).build());
+    }
+
+    private void slotEvent(String type, AppointmentSlot slot) {
+        publish(event(type, slot.getDoctor().getDoctorId(), slot.getDoctorSchedule().getScheduleDate())
+                .slotIds(List.of(slot.getId()))
+                .build());
+    }
+
+    private SlotAvailabilityEvent.SlotAvailabilityEventBuilder event(String type, Long doctorId, LocalDate date) {
+        return SlotAvailabilityEvent.builder()
+                .type(type)
+                .doctorId(doctorId)
+                .date(date.toString())
+                .timestamp(System.currentTimeMillis());
+    }
+
+    private void publish(SlotAvailabilityEvent event) {
+        String destination = "/topic/availability." + event.getDoctorId() + "." + event.getDate();
+        TransactionHooks.afterCommit(() -> {
+            try {
+                messagingTemplate.convertAndSend(destination, event);
+            } catch (Exception e) {
+                // Clients fall back to the REST endpoints, never fail the write for this
+                logger.warn("Could not publish {} event to {}", event.getType(), destination, e);
+            }
+        });
+    }
+}
@@ -11,7 +11,10 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.util.Date;
 
 @Entity
-@Table(name = "appointment")
+@Table(name = "appointment", indexes = {
+        @Index(name = "idx_appointment_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_appointment_status_created_id", columnList = "status, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,7 +40,6 @@ public class Appointment {
     @Column(name = "appointment_type", nullable = false)
     private String appointmentType;
 
-<<<<<<< HEAD
     @Column(name = "status", length = 20)
     @Builder.Default
     private String status = "Đã đặt"; // 'Đã đặt', 'Đã xác nhận', 'Đã hủy', 'Hoàn thành'
@@ -50,14 +52,6 @@ public class Appointment {
     @Builder.Default
     private Boolean isVirtual = false;
 
-=======
-    @Column(name = "status")
-    private String status = "Chờ xác nhận";
-
-    @Column(name = "is_anonymous")
-    private Boolean isAnonymous = false;
-
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
     @Column(name = "symptoms")
     private String symptoms;
 
@@ -71,4 +65,9 @@ public class Appointment {
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "created_at", updatable = false)
     private Date createdAt;
+
+    // Optimistic locking: cập nhật đồng thời trên cùng lịch hẹn sẽ bị từ chối thay vì ghi đè
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
 }
\ No newline at end of file
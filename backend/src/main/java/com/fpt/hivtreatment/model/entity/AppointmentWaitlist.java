@@ -0,0 +1,69 @@
+package com.fpt.hivtreatment.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+@Entity
+@Table(name = "appointment_waitlist", indexes = {
+        @Index(name = "idx_waitlist_doctor_date_status", columnList = "doctor_id, wait_date, status, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class AppointmentWaitlist {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "patient_id", nullable = false)
+    private User patient;
+
+    @ManyToOne
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private DoctorProfile doctor;
+
+    @Column(name = "wait_date", nullable = false)
+    private LocalDate waitDate;
+
+    @Column(name = "appointment_type", nullable = false)
+    private String appointmentType;
+
+    @Column(name = "is_anonymous")
+    @Builder.Default
+    private Boolean isAnonymous = false;
+
+    @Column(name = "symptoms")
+    private String symptoms;
+
+    @Column(name = "notes")
+    private String notes;
+
+    @Column(name = "status", length = 20)
+    @Builder.Default
+    private String status = "Đang chờ"; // 'Đang chờ', 'Đã xếp lịch', 'Đã hủy'
+
+    // Lịch hẹn được tạo khi có slot trống
+    @ManyToOne
+    @JoinColumn(name = "appointment_id")
+    private Appointment appointment;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "assigned_at")
+    private Date assignedAt;
+
+    @CreatedDate
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", updatable = false)
+    private Date createdAt;
+}
@@ -13,7 +13,9 @@ import java.time.LocalDate;
 import java.util.Date;
 
 @Entity
-@Table(name = "doctor_schedule")
+@Table(name = "doctor_schedule", indexes = {
+        @Index(name = "idx_doctor_schedule_date", columnList = "schedule_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -10,7 +10,11 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "reminders")
+@Table(name = "reminders", uniqueConstraints = {
+        // Mỗi lịch hẹn chỉ có một nhắc nhở cho mỗi mốc "trước N ngày", kể cả khi chạy lại hay nhiều instance
+        @UniqueConstraint(name = "uk_reminder_appointment_days", columnNames = { "appointment_id",
+                "days_before_appointment" })
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,6 +49,9 @@ public class Reminder {
     @JoinColumn(name = "medical_record_id", insertable = false, updatable = false)
     private MedicalRecord medicalRecord;
 
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
     // Thông tin nhắc hẹn
     @Column(name = "title", nullable = false, length = 255)
     private String title;
@@ -1,5 +1,6 @@
 package com.fpt.hivtreatment.model.entity;
 
+import com.fpt.hivtreatment.cache.ShiftTemplateCacheListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,7 +17,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({ AuditingEntityListener.class, ShiftTemplateCacheListener.class })
 public class TimeSlot {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
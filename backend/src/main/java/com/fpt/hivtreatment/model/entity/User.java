@@ -44,12 +44,20 @@ public class User {
     @Column(name = "is_active")
     @Builder.Default
     private Boolean isActive = true;
+    // Tăng khi khóa tài khoản, đổi vai trò hoặc mật khẩu; token mang version cũ bị từ chối
+    @Column(name = "token_version")
+    @Builder.Default
+    private Integer tokenVersion = 0;
 
     @CreatedDate
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "created_at", updatable = false)
     private Date createdAt;
 
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "last_login_at")
+    private Date lastLoginAt;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "role_id", referencedColumnName = "id")
     private Role role;
@@ -1,6 +1,7 @@
 package com.fpt.hivtreatment.model.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fpt.hivtreatment.cache.ShiftTemplateCacheListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,7 +18,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({ AuditingEntityListener.class, ShiftTemplateCacheListener.class })
 public class WorkShift {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,5 +1,6 @@
 package com.fpt.hivtreatment.model.entity;
 
+import com.fpt.hivtreatment.cache.ShiftTemplateCacheListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,7 +14,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({ AuditingEntityListener.class, ShiftTemplateCacheListener.class })
 public class WorkShiftTimeSlot {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
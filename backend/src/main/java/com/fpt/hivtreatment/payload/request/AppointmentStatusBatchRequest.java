@@ -0,0 +1,31 @@
+package com.fpt.hivtreatment.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AppointmentStatusBatchRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    private List<@Valid Item> items;
+
+    @Data
+    public static class Item {
+
+        @NotNull(message = "Appointment ID is required")
+        private Long id;
+
+        @NotBlank(message = "Status is required")
+        private String status;
+
+        private String cancellationReason;
+
+        // Phiên bản client đã đọc; khác phiên bản hiện tại thì mục này bị từ chối
+        private Long version;
+    }
+}
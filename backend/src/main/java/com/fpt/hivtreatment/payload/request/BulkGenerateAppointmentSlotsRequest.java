@@ -0,0 +1,22 @@
+package com.fpt.hivtreatment.payload.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class BulkGenerateAppointmentSlotsRequest {
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    // Bỏ trống để tạo slot cho tất cả bác sĩ
+    private List<Long> doctorIds;
+
+    // Bỏ trống để tạo slot cho tất cả ca làm việc
+    private Long workShiftId;
+}
@@ -0,0 +1,26 @@
+package com.fpt.hivtreatment.payload.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class WaitlistRequest {
+
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "Wait date is required")
+    private LocalDate waitDate;
+
+    @NotBlank(message = "Appointment type is required")
+    private String appointmentType;
+
+    private Boolean isAnonymous;
+
+    private String symptoms;
+
+    private String notes;
+}
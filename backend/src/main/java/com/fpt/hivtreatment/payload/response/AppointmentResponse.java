@@ -28,4 +28,5 @@ public class AppointmentResponse {
     private String appointmentDate;
     private String startTime;
     private String endTime;
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.fpt.hivtreatment.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentStatusBatchResponse {
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long id;
+        private boolean success;
+        private String previousStatus;
+        private String status;
+        private String message;
+        private Long version;
+    }
+}
@@ -0,0 +1,37 @@
+package com.fpt.hivtreatment.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSlotGenerationResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int schedulesMatched;
+    private int schedulesGenerated;
+    private int schedulesSkipped;
+    private int slotsCreated;
+    private long durationMs;
+    // Tiến độ theo từng ngày, theo thứ tự ngày
+    private List<DayProgress> days;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayProgress {
+        private LocalDate date;
+        private int schedulesMatched;
+        private int schedulesGenerated;
+        private int schedulesSkipped;
+        private int slotsCreated;
+    }
+}
@@ -13,6 +13,7 @@ public class ReminderResponse {
     private String patientName;
     private Long prescriptionId;
     private Long medicalRecordId;
+    private Long appointmentId;
     private String reminderType;
     private String title;
     private String message;
@@ -0,0 +1,21 @@
+package com.fpt.hivtreatment.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldResponse {
+    private String holdId;
+    private Long appointmentSlotId;
+    private Long doctorId;
+    private LocalDate scheduleDate;
+    private Instant expiresAt;
+}
@@ -0,0 +1,31 @@
+package com.fpt.hivtreatment.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistResponse {
+    private Long id;
+    private Long patientId;
+    private Long doctorId;
+    private String doctorName;
+    private LocalDate waitDate;
+    private String appointmentType;
+    private String status;
+    private Date createdAt;
+
+    // Thông tin lịch hẹn khi đã được xếp slot
+    private Long appointmentId;
+    private Long appointmentSlotId;
+    private String startTime;
+    private String endTime;
+    private Date assignedAt;
+}
@@ -1,5 +1,9 @@
 package com.fpt.hivtreatment.repository;
 
+import com.fpt.hivtreatment.dto.AppointmentDailyCount;
+import com.fpt.hivtreatment.dto.AppointmentListView;
+import com.fpt.hivtreatment.dto.ReminderCandidate;
+import com.fpt.hivtreatment.dto.StatusCount;
 import com.fpt.hivtreatment.model.entity.Appointment;
 import com.fpt.hivtreatment.model.entity.DoctorProfile;
 import com.fpt.hivtreatment.model.entity.User;
@@ -11,11 +15,13 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
-<<<<<<< HEAD
        List<Appointment> findByPatient(User patient);
 
        List<Appointment> findByDoctor(DoctorProfile doctor);
@@ -79,25 +85,178 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
                      @Param("excludeType") String excludeType,
                      @Param("status") String status,
                      @Param("date") LocalDate date);
-=======
-    List<Appointment> findByPatient(User patient);
-
-    List<Appointment> findByDoctor(DoctorProfile doctor);
-
-    List<Appointment> findByPatientAndStatus(User patient, String status);
-
-    List<Appointment> findByDoctorAndStatus(DoctorProfile doctor, String status);
-    
-    long countByStatus(String status);
-    
-    Page<Appointment> findByStatus(String status, Pageable pageable);
-    
-    @Query("SELECT a FROM Appointment a JOIN a.appointmentSlot slot JOIN slot.doctorSchedule ds " +
-           "WHERE a.status = :status AND CAST(ds.scheduleDate AS LocalDate) BETWEEN :startDate AND :endDate")
-    Page<Appointment> findByStatusAndDateRange(
-            @Param("status") String status, 
-            @Param("startDate") LocalDate startDate, 
-            @Param("endDate") LocalDate endDate, 
-            Pageable pageable);
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
+
+       /**
+        * Ids trong danh sách slot đã được lịch hẹn tham chiếu
+        */
+       @Query("SELECT DISTINCT a.appointmentSlot.id FROM Appointment a WHERE a.appointmentSlot.id IN :slotIds")
+       List<Long> findReferencedSlotIds(@Param("slotIds") List<Long> slotIds);
+
+       String LIST_VIEW_SELECT = "SELECT new com.fpt.hivtreatment.dto.AppointmentListView(" +
+                     "a.id, p.id, p.fullName, d.doctorId, du.fullName, s.id, a.appointmentType, a.status, " +
+                     "a.isAnonymous, a.symptoms, a.notes, a.cancellationReason, a.createdAt, " +
+                     "ds.scheduleDate, t.startTime, t.endTime, a.version) ";
+
+       String LIST_VIEW_FROM = "FROM Appointment a LEFT JOIN a.patient p JOIN a.doctor d LEFT JOIN d.user du " +
+                     "JOIN a.appointmentSlot s JOIN s.doctorSchedule ds JOIN s.timeSlot t ";
+
+       /**
+        * Trang lịch hẹn dạng read model (một truy vấn dữ liệu + một truy vấn đếm)
+        */
+       @Query(value = LIST_VIEW_SELECT + LIST_VIEW_FROM,
+                     countQuery = "SELECT COUNT(a) FROM Appointment a")
+       Page<AppointmentListView> findListViews(Pageable pageable);
+
+       /**
+        * Trang lịch hẹn theo trạng thái dạng read model
+        */
+       @Query(value = LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE a.status = :status",
+                     countQuery = "SELECT COUNT(a) FROM Appointment a WHERE a.status = :status")
+       Page<AppointmentListView> findListViewsByStatus(@Param("status") String status, Pageable pageable);
+
+       /**
+        * Trang lịch hẹn theo trạng thái và khoảng ngày khám dạng read model
+        */
+       @Query(value = LIST_VIEW_SELECT + LIST_VIEW_FROM +
+                     "WHERE a.status = :status AND ds.scheduleDate BETWEEN :startDate AND :endDate",
+                     countQuery = "SELECT COUNT(a) FROM Appointment a JOIN a.appointmentSlot s JOIN s.doctorSchedule ds " +
+                                   "WHERE a.status = :status AND ds.scheduleDate BETWEEN :startDate AND :endDate")
+       Page<AppointmentListView> findListViewsByStatusAndDateRange(
+                     @Param("status") String status,
+                     @Param("startDate") LocalDate startDate,
+                     @Param("endDate") LocalDate endDate,
+                     Pageable pageable);
+
+       /**
+        * Lịch hẹn của bệnh nhân dạng read model, lọc theo trạng thái nếu có
+        */
+       @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM +
+                     "WHERE p.id = :patientId AND (:status IS NULL OR a.status = :status)")
+       List<AppointmentListView> findListViewsByPatientId(
+                     @Param("patientId") Long patientId,
+                     @Param("status") String status);
+
+       /**
+        * Lịch hẹn của bác sĩ dạng read model, lọc theo trạng thái nếu có
+        */
+       @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM +
+                     "WHERE d.doctorId = :doctorId AND (:status IS NULL OR a.status = :status)")
+       List<AppointmentListView> findListViewsByDoctorId(
+                     @Param("doctorId") Long doctorId,
+                     @Param("status") String status);
+
+       String MANAGER_FILTER = "(:status IS NULL OR a.status = :status) " +
+                     "AND (:startDate IS NULL OR ds.scheduleDate >= :startDate) " +
+                     "AND (:endDate IS NULL OR ds.scheduleDate <= :endDate) ";
+
+       /**
+        * Trang đầu tiên của danh sách lịch hẹn cho manager, mới nhất trước.
+        * Số dòng lấy theo kích thước của pageable, không chạy truy vấn đếm.
+        */
+       @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE " + MANAGER_FILTER +
+                     "ORDER BY a.createdAt DESC, a.id DESC")
+       List<AppointmentListView> findListViewsForManager(
+                     @Param("status") String status,
+                     @Param("startDate") LocalDate startDate,
+                     @Param("endDate") LocalDate endDate,
+                     Pageable pageable);
+
+       /**
+        * Trang tiếp theo sau con trỏ (createdAt, id): seek theo index thay vì
+        * OFFSET, nên chi phí không tăng khi cuộn sâu.
+        */
+       @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE " + MANAGER_FILTER +
+                     "AND (a.createdAt < :cursorCreatedAt " +
+                     "OR (a.createdAt = :cursorCreatedAt AND a.id < :cursorId)) " +
+                     "ORDER BY a.createdAt DESC, a.id DESC")
+       List<AppointmentListView> findListViewsForManagerAfter(
+                     @Param("status") String status,
+                     @Param("startDate") LocalDate startDate,
+                     @Param("endDate") LocalDate endDate,
+                     @Param("cursorCreatedAt") Date cursorCreatedAt,
+                     @Param("cursorId") Long cursorId,
+                     Pageable pageable);
+
+       /**
+        * Tổng số lịch hẹn theo bộ lọc của manager
+        */
+       @Query("SELECT COUNT(a) FROM Appointment a JOIN a.appointmentSlot s JOIN s.doctorSchedule ds " +
+                     "WHERE " + MANAGER_FILTER)
+       long countForManager(
+                     @Param("status") String status,
+                     @Param("startDate") LocalDate startDate,
+                     @Param("endDate") LocalDate endDate);
+
+       /**
+        * Số lịch hẹn theo từng trạng thái trong một truy vấn GROUP BY
+        */
+       @Query("SELECT new com.fpt.hivtreatment.dto.StatusCount(a.status, COUNT(a)) " +
+                     "FROM Appointment a GROUP BY a.status")
+       List<StatusCount> countGroupedByStatus();
+
+       /**
+        * Số lịch hẹn theo ngày khám, bác sĩ, trạng thái và loại khám trong khoảng ngày
+        */
+       @Query("SELECT new com.fpt.hivtreatment.dto.AppointmentDailyCount(" +
+                     "ds.scheduleDate, d.doctorId, du.fullName, a.status, a.appointmentType, COUNT(a)) " +
+                     "FROM Appointment a JOIN a.doctor d LEFT JOIN d.user du " +
+                     "JOIN a.appointmentSlot s JOIN s.doctorSchedule ds " +
+                     "WHERE ds.scheduleDate BETWEEN :startDate AND :endDate " +
+                     "GROUP BY ds.scheduleDate, d.doctorId, du.fullName, a.status, a.appointmentType")
+       List<AppointmentDailyCount> countDailyByDimensions(
+                     @Param("startDate") LocalDate startDate,
+                     @Param("endDate") LocalDate endDate);
+
+       /**
+        * Nạp nhiều lịch hẹn cùng bệnh nhân, bác sĩ và slot trong một truy vấn (cập nhật trạng thái hàng loạt)
+        */
+       @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.patient JOIN FETCH a.doctor d LEFT JOIN FETCH d.user " +
+                     "JOIN FETCH a.appointmentSlot s JOIN FETCH s.doctorSchedule JOIN FETCH s.timeSlot " +
+                     "WHERE a.id IN :ids")
+       List<Appointment> findAllForStatusUpdate(@Param("ids") Collection<Long> ids);
+
+       /**
+        * Id lịch hẹn ở trạng thái cho trước có ngày khám trước một ngày (dọn lịch hẹn tồn đọng)
+        */
+       @Query("SELECT a.id FROM Appointment a JOIN a.appointmentSlot s JOIN s.doctorSchedule ds " +
+                     "WHERE a.status = :status AND ds.scheduleDate < :date ORDER BY a.id")
+       List<Long> findStaleIdsByStatusBefore(
+                     @Param("status") String status,
+                     @Param("date") LocalDate date,
+                     Pageable pageable);
+
+       /**
+        * Id lịch hẹn chờ xác nhận quá lâu nhưng vẫn giữ một slot từ ngày cho trước trở đi
+        */
+       @Query("SELECT a.id FROM Appointment a JOIN a.appointmentSlot s JOIN s.doctorSchedule ds " +
+                     "WHERE a.status = :status AND a.createdAt < :createdBefore AND ds.scheduleDate >= :fromDate " +
+                     "ORDER BY a.id")
+       List<Long> findAbandonedPendingIds(
+                     @Param("status") String status,
+                     @Param("createdBefore") Date createdBefore,
+                     @Param("fromDate") LocalDate fromDate,
+                     Pageable pageable);
+
+       /**
+        * Lịch hẹn sắp tới trong khoảng ngày chưa có nhắc nhở cho mốc daysBefore,
+        * duyệt theo id (keyset) để mỗi lần chỉ đọc một batch
+        */
+       @Query("SELECT new com.fpt.hivtreatment.dto.ReminderCandidate(" +
+                     "a.id, p.id, p.username, a.appointmentType, du.fullName, ds.scheduleDate, t.startTime) " +
+                     "FROM Appointment a JOIN a.patient p JOIN a.doctor d LEFT JOIN d.user du " +
+                     "JOIN a.appointmentSlot s JOIN s.doctorSchedule ds JOIN s.timeSlot t " +
+                     "WHERE ds.scheduleDate BETWEEN :fromDate AND :toDate AND a.status = :status " +
+                     "AND (ds.scheduleDate > :fromDate OR t.startTime > :notBefore) " +
+                     "AND a.id > :afterId " +
+                     "AND NOT EXISTS (SELECT r.id FROM Reminder r " +
+                     "WHERE r.appointmentId = a.id AND r.daysBeforeAppointment = :daysBefore) " +
+                     "ORDER BY a.id")
+       List<ReminderCandidate> findReminderCandidates(
+                     @Param("fromDate") LocalDate fromDate,
+                     @Param("toDate") LocalDate toDate,
+                     @Param("notBefore") LocalTime notBefore,
+                     @Param("status") String status,
+                     @Param("daysBefore") Integer daysBefore,
+                     @Param("afterId") Long afterId,
+                     Pageable pageable);
 }
\ No newline at end of file
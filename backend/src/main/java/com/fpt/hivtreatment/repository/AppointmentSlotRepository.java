@@ -1,12 +1,18 @@
 package com.fpt.hivtreatment.repository;
 
+import com.fpt.hivtreatment.dto.AppointmentSlotView;
 import com.fpt.hivtreatment.model.entity.AppointmentSlot;
 import com.fpt.hivtreatment.model.entity.DoctorProfile;
 import com.fpt.hivtreatment.model.entity.DoctorSchedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 @Repository
@@ -20,4 +26,71 @@ public interface AppointmentSlotRepository extends JpaRepository<AppointmentSlot
     List<AppointmentSlot> findByDoctorAndDoctorSchedule_ScheduleDate(DoctorProfile doctor, LocalDate date);
 
     void deleteByDoctorScheduleId(Long doctorScheduleId);
+
+    String SLOT_VIEW_SELECT = "SELECT new com.fpt.hivtreatment.dto.AppointmentSlotView(" +
+            "s.id, ds.id, t.id, d.doctorId, s.isAvailable, s.createdAt, " +
+            "t.startTime, t.endTime, ds.scheduleDate, u.username, d.specialty) " +
+            "FROM AppointmentSlot s JOIN s.doctorSchedule ds JOIN s.timeSlot t " +
+            "JOIN s.doctor d LEFT JOIN d.user u ";
+
+    /**
+     * Read model of a doctor's slots for one day, ordered by start time, in a
+     * single query
+     */
+    @Query(SLOT_VIEW_SELECT +
+            "WHERE d.doctorId = :doctorId AND ds.scheduleDate = :date ORDER BY t.startTime")
+    List<AppointmentSlotView> findViewsByDoctorIdAndDate(@Param("doctorId") Long doctorId,
+            @Param("date") LocalDate date);
+
+    /**
+     * Read model of the slots of one doctor schedule, ordered by start time
+     */
+    @Query(SLOT_VIEW_SELECT +
+            "WHERE ds.id = :doctorScheduleId ORDER BY t.startTime")
+    List<AppointmentSlotView> findViewsByDoctorScheduleId(@Param("doctorScheduleId") Long doctorScheduleId);
+
+    /**
+     * Ids of the given schedules that already have at least one slot
+     */
+    @Query("SELECT DISTINCT s.doctorSchedule.id FROM AppointmentSlot s WHERE s.doctorSchedule.id IN :scheduleIds")
+    List<Long> findScheduleIdsWithSlots(@Param("scheduleIds") List<Long> scheduleIds);
+
+    /**
+     * Read model of all slots from a date onward (used to warm the availability
+     * index)
+     */
+    @Query(SLOT_VIEW_SELECT + "WHERE ds.scheduleDate >= :fromDate")
+    List<AppointmentSlotView> findViewsFromDate(@Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Read model of the slots from a date onward that were created or changed
+     * since the given time (used to resync the availability index)
+     */
+    @Query(SLOT_VIEW_SELECT + "WHERE ds.scheduleDate >= :fromDate " +
+            "AND (s.updatedAt >= :since OR s.createdAt >= :since)")
+    List<AppointmentSlotView> findViewsChangedSince(@Param("fromDate") LocalDate fromDate,
+            @Param("since") Date since);
+
+    /**
+     * Atomically claim a slot. The row is only updated while it is still
+     * available, so concurrent callers (on any app instance) cannot both win.
+     *
+     * @param id the appointment slot id
+     * @return 1 if this caller claimed the slot, 0 if it was already taken
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AppointmentSlot s SET s.isAvailable = false, s.version = s.version + 1, " +
+            "s.updatedAt = CURRENT_TIMESTAMP WHERE s.id = :id AND s.isAvailable = true")
+    int claimSlot(@Param("id") Long id);
+
+    /**
+     * Mark several slots available again with a single UPDATE
+     *
+     * @param ids the appointment slot ids
+     * @return number of slots updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AppointmentSlot s SET s.isAvailable = true, s.version = s.version + 1, " +
+            "s.updatedAt = CURRENT_TIMESTAMP WHERE s.id IN :ids")
+    int markAvailable(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
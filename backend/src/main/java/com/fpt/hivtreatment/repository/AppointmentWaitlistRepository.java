@@ -0,0 +1,46 @@
+package com.fpt.hivtreatment.repository;
+
+import com.fpt.hivtreatment.model.entity.AppointmentWaitlist;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AppointmentWaitlistRepository extends JpaRepository<AppointmentWaitlist, Long> {
+
+    /**
+     * Tìm danh sách chờ của một bệnh nhân, mới nhất trước
+     */
+    List<AppointmentWaitlist> findByPatientIdOrderByCreatedAtDesc(Long patientId);
+
+    /**
+     * Kiểm tra bệnh nhân đã đăng ký chờ cho bác sĩ và ngày này chưa
+     */
+    boolean existsByPatientIdAndDoctorDoctorIdAndWaitDateAndStatus(Long patientId, Long doctorId,
+            LocalDate waitDate, String status);
+
+    /**
+     * Lock the oldest waiting entries for a doctor and date, skipping one patient
+     * (the one who just cancelled). Callers pass a page size of 1; the row lock
+     * keeps two concurrent cancellations from assigning the same waiter.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM AppointmentWaitlist w " +
+            "WHERE w.doctor.doctorId = :doctorId " +
+            "AND w.waitDate = :waitDate " +
+            "AND w.status = :status " +
+            "AND (:excludedPatientId IS NULL OR w.patient.id <> :excludedPatientId) " +
+            "ORDER BY w.createdAt ASC, w.id ASC")
+    List<AppointmentWaitlist> findNextWaitingForUpdate(@Param("doctorId") Long doctorId,
+            @Param("waitDate") LocalDate waitDate,
+            @Param("status") String status,
+            @Param("excludedPatientId") Long excludedPatientId,
+            Pageable pageable);
+}
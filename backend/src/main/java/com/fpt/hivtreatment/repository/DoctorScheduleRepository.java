@@ -3,6 +3,8 @@ package com.fpt.hivtreatment.repository;
 import com.fpt.hivtreatment.model.entity.DoctorProfile;
 import com.fpt.hivtreatment.model.entity.DoctorSchedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -28,4 +30,16 @@ public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule,
     long countByScheduleDate(LocalDate date);
 
     List<DoctorSchedule> findByScheduleDateBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Schedules in a date range, optionally of one work shift, with their doctor
+     * and work shift loaded in the same query, ordered by date
+     */
+    @Query("SELECT ds FROM DoctorSchedule ds JOIN FETCH ds.doctor d LEFT JOIN FETCH d.user u " +
+            "LEFT JOIN FETCH u.role JOIN FETCH ds.workShift ws " +
+            "WHERE ds.scheduleDate BETWEEN :startDate AND :endDate " +
+            "AND (:workShiftId IS NULL OR ws.id = :workShiftId) " +
+            "ORDER BY ds.scheduleDate, ds.id")
+    List<DoctorSchedule> findWithDoctorAndShiftByScheduleDateBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate, @Param("workShiftId") Long workShiftId);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.fpt.hivtreatment.repository;
 
+import com.fpt.hivtreatment.dto.StatusCount;
 import com.fpt.hivtreatment.model.entity.LabTestOrder;
 import com.fpt.hivtreatment.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -53,6 +54,13 @@ public interface LabTestOrderRepository extends JpaRepository<LabTestOrder, Long
         @Query("SELECT COUNT(lto) FROM LabTestOrder lto WHERE lto.status = :status")
         Long countByStatus(@Param("status") String status);
 
+        /**
+         * Đếm số đơn hàng theo từng trạng thái trong một truy vấn
+         */
+        @Query("SELECT new com.fpt.hivtreatment.dto.StatusCount(lto.status, COUNT(lto)) " +
+                        "FROM LabTestOrder lto GROUP BY lto.status")
+        List<StatusCount> countGroupedByStatus();
+
         List<LabTestOrder> findByPatientId(Long patientId);
 
         List<LabTestOrder> findByDoctorId(Long doctorId);
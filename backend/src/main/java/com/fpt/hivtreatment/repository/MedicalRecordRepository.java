@@ -1,5 +1,6 @@
 package com.fpt.hivtreatment.repository;
 
+import com.fpt.hivtreatment.dto.StatusCount;
 import com.fpt.hivtreatment.model.entity.MedicalRecord;
 import com.fpt.hivtreatment.model.entity.User;
 import org.springframework.data.domain.Page;
@@ -41,4 +42,8 @@ public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Lo
 
     @Query("SELECT COUNT(mr) FROM MedicalRecord mr WHERE mr.recordStatus = :status")
     long countByRecordStatus(@Param("status") String status);
+
+    @Query("SELECT new com.fpt.hivtreatment.dto.StatusCount(mr.recordStatus, COUNT(mr)) " +
+            "FROM MedicalRecord mr GROUP BY mr.recordStatus")
+    List<StatusCount> countGroupedByRecordStatus();
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.fpt.hivtreatment.repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fpt.hivtreatment.dto.UserTokenState;
 import com.fpt.hivtreatment.model.entity.User;
 
 @Repository
@@ -29,6 +31,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByRoleIdAndIsActive(Integer roleId, Boolean isActive, Pageable pageable);
 
+    @Query("SELECT new com.fpt.hivtreatment.dto.UserTokenState(u.isActive, u.tokenVersion) FROM User u WHERE u.id = :id")
+    Optional<UserTokenState> findTokenStateById(@Param("id") Long id);
+
     long countByRoleId(Integer roleId);
 
     long countByIsActive(Boolean isActive);
@@ -46,6 +51,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query(value = "UPDATE users SET is_active = false WHERE id = :id", nativeQuery = true)
     int deactivateUserById(@Param("id") Long id);
 
+    /**
+     * Lưu mật khẩu đã hash lại khi đăng nhập (đổi cost BCrypt)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * Ghi thời điểm đăng nhập gần nhất
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastLoginAt = :loginAt WHERE u.id = :id")
+    int updateLastLoginAt(@Param("id") Long id, @Param("loginAt") Date loginAt);
+
     /**
      * Check if there are any foreign key references to this user
      * 
@@ -0,0 +1,86 @@
+package com.fpt.hivtreatment.scheduler;
+
+import com.fpt.hivtreatment.dto.ReminderDispatchResult;
+import com.fpt.hivtreatment.service.ReminderService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Background job that writes appointment reminders for confirmed appointments
+ * in the next {@code daysBefore} days and pushes them to each patient's own
+ * STOMP session ({@code /user/queue/reminders}). Appointments that already
+ * started today are skipped.
+ * 
+ * Candidates come from an indexed query on the schedule date that skips
+ * appointments already reminded, read in keyset batches of one transaction
+ * each. A unique key on (appointment_id, days_before_appointment) keeps the
+ * job idempotent across restarts and across several app instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentReminderDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderDispatcher.class);
+
+    private final ReminderService reminderService;
+
+    @Value("${app.reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reminders.daysBefore:1}")
+    private int daysBefore;
+
+    @Value("${app.reminders.batchSize:500}")
+    private int batchSize;
+
+    @Value("${app.reminders.maxBatchesPerRun:100}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${app.reminders.intervalMs:300000}",
+            initialDelayString = "${app.reminders.initialDelayMs:30000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+
+        // Quét cả khoảng hôm nay..daysBefore để lịch đặt muộn hoặc ngày bị bỏ lỡ vẫn được nhắc;
+        // unique key trên reminder giữ mỗi lịch hẹn chỉ một lần. Lịch hôm nay đã bắt đầu thì bỏ qua
+        LocalDate fromDate = LocalDate.now();
+        LocalDate toDate = fromDate.plusDays(daysBefore);
+        LocalTime notBefore = LocalTime.now();
+        long afterId = 0;
+        int created = 0;
+
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            ReminderDispatchResult result;
+            try {
+                result = reminderService.dispatchAppointmentReminders(fromDate, toDate, notBefore, daysBefore, afterId,
+                        batchSize);
+            } catch (DataIntegrityViolationException e) {
+                // Một instance khác vừa tạo nhắc nhở cho cùng lịch hẹn: lần chạy sau sẽ bỏ qua các lịch đó
+                logger.warn("Reminder batch after appointment {} skipped: {}", afterId, e.getMessage());
+                break;
+            } catch (Exception e) {
+                logger.error("Appointment reminder dispatch failed", e);
+                break;
+            }
+
+            created += result.created();
+            if (!result.hasMore()) {
+                break;
+            }
+            afterId = result.lastAppointmentId();
+        }
+
+        if (created > 0) {
+            logger.info("Dispatched {} appointment reminders for {} to {}", created, fromDate, toDate);
+        }
+    }
+}
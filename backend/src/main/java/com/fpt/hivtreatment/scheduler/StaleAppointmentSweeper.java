@@ -0,0 +1,107 @@
+package com.fpt.hivtreatment.scheduler;
+
+import com.fpt.hivtreatment.service.AppointmentService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job that moves stale appointments to terminal states, so status
+ * queries and doctor worklists are not bloated by bookings nobody will act on.
+ * 
+ * Each run processes bounded batches, one transaction per batch, until
+ * nothing is left or the per-run limit is reached. Counts per category are
+ * kept for the manager dashboard.
+ */
+@Component
+@RequiredArgsConstructor
+public class StaleAppointmentSweeper {
+    private static final Logger logger = LoggerFactory.getLogger(StaleAppointmentSweeper.class);
+
+    private final AppointmentService appointmentService;
+
+    @Value("${app.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.sweeper.batchSize:200}")
+    private int batchSize;
+
+    @Value("${app.sweeper.maxBatchesPerRun:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.sweeper.pendingTtlHours:72}")
+    private int pendingTtlHours;
+
+    @Value("${app.sweeper.noShowGraceDays:1}")
+    private int noShowGraceDays;
+
+    private final Map<String, AtomicLong> totals = new ConcurrentHashMap<>();
+    private final AtomicLong runs = new AtomicLong();
+    private volatile Map<String, Integer> lastRunCounts = Map.of();
+    private volatile Date lastRunAt;
+
+    @Scheduled(fixedDelayString = "${app.sweeper.intervalMs:600000}",
+            initialDelayString = "${app.sweeper.initialDelayMs:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, Integer> runCounts = new HashMap<>();
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Map<String, Integer> batch;
+                try {
+                    batch = appointmentService.sweepStaleAppointments(batchSize, pendingTtlHours, noShowGraceDays);
+                } catch (OptimisticLockingFailureException e) {
+                    // Lịch hẹn vừa được người khác cập nhật: bỏ qua batch này, lần chạy sau sẽ xử lý lại
+                    logger.warn("Stale appointment batch skipped after concurrent update: {}", e.getMessage());
+                    break;
+                }
+                batch.forEach((category, count) -> runCounts.merge(category, count, Integer::sum));
+
+                // Không còn nhóm nào đầy batch thì đã dọn hết
+                if (batch.values().stream().noneMatch(count -> count >= batchSize)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Stale appointment sweep failed", e);
+        }
+
+        runCounts.forEach((category, count) -> totals.computeIfAbsent(category, c -> new AtomicLong()).addAndGet(count));
+        runs.incrementAndGet();
+        lastRunCounts = runCounts;
+        lastRunAt = new Date();
+
+        if (runCounts.values().stream().anyMatch(count -> count > 0)) {
+            logger.info("Stale appointment sweep: {}", runCounts);
+        }
+    }
+
+    /**
+     * Counts of the last run and since startup
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Long> totalCounts = new HashMap<>();
+        totals.forEach((category, count) -> totalCounts.put(category, count.get()));
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("runs", runs.get());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRun", lastRunCounts);
+        stats.put("total", totalCounts);
+        return stats;
+    }
+}
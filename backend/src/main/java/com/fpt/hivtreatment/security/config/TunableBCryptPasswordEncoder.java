@@ -0,0 +1,40 @@
+package com.fpt.hivtreatment.security.config;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder whose cost comes from configuration. A stored hash with any
+ * other cost, higher or lower, is reported for upgrade, so Spring re-hashes it
+ * on the next successful login and all hashes converge to the configured cost.
+ */
+public class TunableBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int strength;
+
+    public TunableBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            // Không phải BCrypt thì matches() đã thất bại, không có gì để nâng cấp
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
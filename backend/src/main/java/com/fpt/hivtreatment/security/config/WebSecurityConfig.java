@@ -1,5 +1,6 @@
 package com.fpt.hivtreatment.security.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,7 +9,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -39,34 +39,27 @@ public class WebSecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> {
-<<<<<<< HEAD
                     // WebSocket endpoints
                     auth.requestMatchers("/ws/**").permitAll();
                     auth.requestMatchers("/api/ws/**").permitAll();
 
-=======
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
                     // Debug endpoints - no authentication required
                     auth.requestMatchers("/debug/**").permitAll();
                     auth.requestMatchers("/api/debug/**").permitAll();
                     auth.requestMatchers("/debug/database-tables").permitAll();
                     auth.requestMatchers("/api/debug/database-tables").permitAll();
 
-<<<<<<< HEAD
                     // Swagger UI endpoints
                     auth.requestMatchers("/swagger-ui.html").permitAll();
                     auth.requestMatchers("/swagger-ui/**").permitAll();
                     auth.requestMatchers("/api-docs/**").permitAll();
                     auth.requestMatchers("/v3/api-docs/**").permitAll();
 
-=======
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
                     // Public endpoints
                     auth.requestMatchers("/api/auth/**").permitAll();
                     auth.requestMatchers("/api/public/**").permitAll();
                     auth.requestMatchers("/api/doctors/**").permitAll();
                     auth.requestMatchers("/api/test-data/**").permitAll();
-<<<<<<< HEAD
                     auth.requestMatchers("/api/test-types/**").permitAll(); // Endpoint xét nghiệm không yêu cầu xác
                                                                             // thực
                     auth.requestMatchers("/appointments/test").permitAll(); // Lab test orders endpoints - accessible by
@@ -86,11 +79,6 @@ public class WebSecurityConfig {
                     auth.requestMatchers("/api/chat/**").authenticated();
                     auth.requestMatchers("/topic/**").permitAll();
                     auth.requestMatchers("/app/**").permitAll();
-=======
-                    auth.requestMatchers("/appointments/test").permitAll();
-
-
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
 
                     // Thêm các đường dẫn /api/... tương ứng
                     auth.requestMatchers("/api/appointments").authenticated();
@@ -131,8 +119,13 @@ public class WebSecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt cost from app.security.bcryptStrength (4-31, each step doubles
+     * the login CPU cost). Hashes with another cost are re-hashed on login by
+     * {@link com.fpt.hivtreatment.security.services.UserDetailsServiceImpl}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcryptStrength:10}") int bcryptStrength) {
+        return new TunableBCryptPasswordEncoder(bcryptStrength);
     }
 }
\ No newline at end of file
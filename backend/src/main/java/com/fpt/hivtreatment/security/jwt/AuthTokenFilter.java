@@ -16,7 +16,12 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import com.fpt.hivtreatment.security.services.TokenRevocationRegistry;
+import com.fpt.hivtreatment.security.services.UserDetailsImpl;
 import com.fpt.hivtreatment.security.services.UserDetailsServiceImpl;
+import com.fpt.hivtreatment.security.jwt.VerifiedTokenCache.VerifiedToken;
+
+import io.jsonwebtoken.Claims;
 
 import lombok.NoArgsConstructor;
 
@@ -30,66 +35,31 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            String requestURI = request.getRequestURI();
-<<<<<<< HEAD
-
             String jwt = parseJwt(request);
             if (jwt != null) {
-                if (jwtUtils.validateJwtToken(jwt)) {
-                    String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Token đã xác thực gần đây thì lấy từ cache, không verify lại chữ ký
+                VerifiedToken verified = verifyToken(jwt);
+                if (verified != null) {
+                    UserDetails userDetails = activePrincipal(verified);
 
                     if (userDetails != null) {
-=======
-
-            // Don't log health checks and other common endpoints
-            if (!requestURI.contains("/actuator") && !requestURI.contains("/favicon.ico")) {
-                log.info("Processing request: {} {}", request.getMethod(), requestURI);
-            }
-
-            String jwt = parseJwt(request);
-            if (jwt != null) {
-                if (!requestURI.contains("/actuator")) {
-                    log.info("JWT found in request for URI: {}", requestURI);
-                }
-
-                if (jwtUtils.validateJwtToken(jwt)) {
-                    String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                    log.info("JWT valid for user: {}, URI: {}", username, requestURI);
-
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                    if (userDetails != null) {
-                        log.info("User details loaded. Username: {}, Authorities: {}",
-                                userDetails.getUsername(), userDetails.getAuthorities());
-
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
                         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                         SecurityContextHolder.getContext().setAuthentication(authentication);
-<<<<<<< HEAD
                     }
-=======
-                        log.info("Authentication set in SecurityContext for '{}', URI: {}", username, requestURI);
-                    } else {
-                        log.warn("Could not load user details for username: {}", username);
-                    }
-                } else {
-                    log.warn("Invalid JWT token for URI: {}", requestURI);
-                }
-            } else {
-                if (!requestURI.contains("/actuator") && !requestURI.equals("/api/auth/login") &&
-                        !requestURI.contains("/public") && !requestURI.contains("/assets")) {
-                    log.info("No JWT token found in request for URI: {}", requestURI);
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
                 }
             }
         } catch (Exception e) {
@@ -99,15 +69,55 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Verified token from the cache, or verify it once and cache the result.
+     * Returns null when the signature or expiry check fails.
+     */
+    private VerifiedToken verifyToken(String jwt) {
+        VerifiedToken cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtUtils.verifyJwtToken(jwt);
+        if (claims == null) {
+            return null;
+        }
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), loadPrincipal(claims),
+                claims.getIssuedAt(), claims.getExpiration());
+        verifiedTokenCache.put(jwt, verified);
+        return verified;
+    }
+
+    /**
+     * Principal from the token claims, without a database round trip. Tokens
+     * issued before the claims carried id and roles still go through
+     * {@link UserDetailsServiceImpl}.
+     */
+    private UserDetailsImpl loadPrincipal(Claims claims) {
+        UserDetailsImpl userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+        if (userDetails == null) {
+            return userDetailsService.loadTokenPrincipal(claims.getSubject());
+        }
+        return userDetails;
+    }
+
+    /**
+     * The token's principal, or null once the user's tokens were revoked
+     */
+    private UserDetails activePrincipal(VerifiedToken verified) {
+        UserDetailsImpl principal = verified.principal();
+        if (tokenRevocationRegistry.isRevoked(principal.getId(), principal.getTokenVersion())) {
+            return null;
+        }
+        return principal;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
             String token = headerAuth.substring(7);
-<<<<<<< HEAD
-=======
-            log.debug("Bearer token extracted from request, length: {}", token.length());
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
             return token;
         }
 
@@ -1,9 +1,11 @@
 package com.fpt.hivtreatment.security.jwt;
 
 import java.util.Date;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import com.fpt.hivtreatment.security.services.UserDetailsImpl;
@@ -12,50 +14,82 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
+import jakarta.annotation.PostConstruct;
+
 import javax.crypto.SecretKey;
 
 @Component
 public class JwtUtils {
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_FULL_NAME = "name";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    // Khóa và parser dựng một lần; JwtParser là immutable nên dùng chung giữa các request
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
-        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        return generateTokenFromUserDetails((UserDetailsImpl) authentication.getPrincipal());
+    }
+
+    /**
+     * Access token for an already authenticated user, e.g. when exchanging a
+     * refresh token
+     */
+    public String generateTokenFromUserDetails(UserDetailsImpl userPrincipal) {
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
 
+        // Đưa id, vai trò và thông tin hiển thị vào token để filter không phải đọc DB mỗi request
         String token = Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_FULL_NAME, userPrincipal.getFullName())
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key())
+                .signWith(signingKey)
                 .compact();
 
         return token;
     }
 
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public String getUserNameFromJwtToken(String token) {
+        return getClaimsFromJwtToken(token).getSubject();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    public Claims getClaimsFromJwtToken(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verify the signature and expiry once and return the claims, or null when
+     * the token is not valid. The filter uses this instead of validating and
+     * then parsing the same token again.
+     */
+    public Claims verifyJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
+            return getClaimsFromJwtToken(authToken);
         } catch (MalformedJwtException e) {
             // Invalid JWT token
         } catch (ExpiredJwtException e) {
@@ -69,6 +103,30 @@ public class JwtUtils {
         } catch (Exception e) {
             // Unexpected error during JWT validation
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Build the principal carried by the token, or null for tokens issued before
+     * user id and roles were added to the claims.
+     */
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (userId == null || roles == null) {
+            return null;
+        }
+
+        return UserDetailsImpl.fromClaims(
+                userId,
+                claims.getSubject(),
+                claims.get(CLAIM_EMAIL, String.class),
+                claims.get(CLAIM_FULL_NAME, String.class),
+                roles.stream().map(String::valueOf).toList(),
+                claims.get(CLAIM_TOKEN_VERSION, Integer.class));
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken) != null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.fpt.hivtreatment.security.jwt;
+
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.fpt.hivtreatment.security.services.TokenRevocationRegistry;
+import com.fpt.hivtreatment.security.services.UserDetailsImpl;
+
+import io.jsonwebtoken.Claims;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Authenticates STOMP sessions with the access token sent in the CONNECT
+ * frame's Authorization header, so per-user destinations
+ * ({@code /user/queue/...}) reach only the signed-in user. Sessions without a
+ * token stay anonymous and can only use public topics; an invalid or revoked
+ * token rejects the CONNECT.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final JwtUtils jwtUtils;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        String headerAuth = accessor.getFirstNativeHeader("Authorization");
+        if (!StringUtils.hasText(headerAuth) || !headerAuth.startsWith("Bearer ")) {
+            return message;
+        }
+
+        Claims claims = jwtUtils.verifyJwtToken(headerAuth.substring(7));
+        UserDetailsImpl principal = claims != null ? jwtUtils.getUserDetailsFromClaims(claims) : null;
+        if (principal == null || tokenRevocationRegistry.isRevoked(principal.getId(), principal.getTokenVersion())) {
+            throw new BadCredentialsException("Invalid or revoked access token");
+        }
+
+        // Tên principal là username: convertAndSendToUser gửi theo username
+        accessor.setUser(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        return message;
+    }
+}
@@ -0,0 +1,114 @@
+package com.fpt.hivtreatment.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fpt.hivtreatment.security.services.UserDetailsImpl;
+
+/**
+ * Bounded cache of recently verified bearer tokens, keyed by the SHA-256 of
+ * the token, so a client reusing the same token skips signature verification
+ * and principal building.
+ * 
+ * An entry never outlives the token's own expiry, is capped by a TTL, and is
+ * dropped as soon as the user's tokens are revoked.
+ */
+@Component
+public class VerifiedTokenCache {
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    @Value("${app.jwt.verifiedCacheSize:10000}")
+    private int maxEntries;
+
+    @Value("${app.jwt.verifiedCacheTtlMs:300000}")
+    private long maxTtlMs;
+
+    private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+
+    public VerifiedToken get(String token) {
+        String key = hash(token);
+        CachedToken cached = tokens.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt() <= System.currentTimeMillis()) {
+            tokens.remove(key, cached);
+            return null;
+        }
+        return cached.token();
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + maxTtlMs;
+        if (verified.expiresAt() != null) {
+            expiresAt = Math.min(expiresAt, verified.expiresAt().getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+
+        if (tokens.size() >= maxEntries) {
+            makeRoom(now);
+        }
+        tokens.put(hash(token), new CachedToken(verified, expiresAt));
+    }
+
+    /**
+     * Drop every cached token of the user (account disabled, role or password
+     * changed).
+     */
+    public void evictUser(Long userId) {
+        tokens.values().removeIf(cached -> userId.equals(cached.token().principal().getId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.verifiedCacheSweepMs:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        tokens.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private void makeRoom(long now) {
+        tokens.values().removeIf(cached -> cached.expiresAt() <= now);
+
+        // Vẫn đầy thì bỏ bớt một phần; token bị bỏ chỉ cần verify lại ở request sau
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<CachedToken> iterator = tokens.values().iterator();
+        while (tokens.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        logger.debug("Verified token cache trimmed to {} entries", tokens.size());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A token whose signature and expiry have been checked, with the principal
+     * it authenticates
+     */
+    public record VerifiedToken(String username, UserDetailsImpl principal, Date issuedAt, Date expiresAt) {
+    }
+
+    private record CachedToken(VerifiedToken token, long expiresAt) {
+    }
+}
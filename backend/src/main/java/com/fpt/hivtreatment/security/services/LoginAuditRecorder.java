@@ -0,0 +1,35 @@
+package com.fpt.hivtreatment.security.services;
+
+import java.util.Date;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.fpt.hivtreatment.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes the login audit trail off the request thread, so a burst of logins
+ * at shift start does not wait on the users table.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginAuditRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(LoginAuditRecorder.class);
+
+    private final UserRepository userRepository;
+
+    @Async
+    public void recordLogin(Long userId, String username, Date loginAt) {
+        try {
+            userRepository.updateLastLoginAt(userId, loginAt);
+            logger.info("Người dùng {} đã đăng nhập lúc {}", username, loginAt);
+        } catch (Exception e) {
+            // Lỗi ghi audit không được ảnh hưởng tới việc đăng nhập
+            logger.warn("Could not record login of user {}: {}", username, e.getMessage());
+        }
+    }
+}
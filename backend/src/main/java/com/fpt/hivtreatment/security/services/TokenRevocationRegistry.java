@@ -0,0 +1,101 @@
+package com.fpt.hivtreatment.security.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fpt.hivtreatment.dto.UserTokenState;
+import com.fpt.hivtreatment.model.entity.User;
+import com.fpt.hivtreatment.repository.UserRepository;
+import com.fpt.hivtreatment.security.jwt.VerifiedTokenCache;
+import com.fpt.hivtreatment.util.TransactionHooks;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Revocation check for stateless JWTs.
+ *
+ * Tokens carry the user's id, roles and the account's token version, so
+ * requests are authenticated without loading the user. Disabling an account,
+ * or changing its role or password, increments {@code users.token_version} in
+ * the same transaction; tokens carrying an older version, or belonging to a
+ * disabled or deleted account, are rejected here. The version lives in the
+ * database, so every instance sees the change: the instance that made it drops
+ * its cached state after commit, the others within the check TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    private final UserRepository userRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Value("${app.jwt.revocationCheckTtlMs:30000}")
+    private long checkTtlMs;
+
+    // userId -> account state read from the database, reused for checkTtlMs
+    private final Map<Long, CachedState> states = new ConcurrentHashMap<>();
+    // Tăng mỗi lần thay đổi được commit, để không lưu trạng thái đọc trước khi commit
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final Object writeLock = new Object();
+
+    /**
+     * Reject the user's existing tokens (account disabled, role or password
+     * changed). Call inside the transaction that changes the user; the new
+     * version is saved with it.
+     */
+    public void revokeTokens(User user) {
+        int current = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+        user.setTokenVersion(current + 1);
+        credentialsChanged(user.getId());
+    }
+
+    /**
+     * Drop this instance's state for the user once the change is committed
+     * (e.g. the account was deleted)
+     */
+    public void credentialsChanged(Long userId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (writeLock) {
+                changeSequence.incrementAndGet();
+                states.remove(userId);
+            }
+            verifiedTokenCache.evictUser(userId);
+        });
+    }
+
+    public boolean isRevoked(Long userId, Integer tokenVersion) {
+        long now = System.currentTimeMillis();
+        CachedState cached = states.get(userId);
+        if (cached == null || now - cached.loadedAt() > checkTtlMs) {
+            long sequence = changeSequence.get();
+            UserTokenState state = userRepository.findTokenStateById(userId)
+                    .orElse(new UserTokenState(false, null));
+            cached = new CachedState(state, now);
+            synchronized (writeLock) {
+                if (changeSequence.get() == sequence) {
+                    states.put(userId, cached);
+                }
+            }
+        }
+        return !cached.state().accepts(tokenVersion);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocationCheckTtlMs:30000}")
+    public void pruneExpired() {
+        long now = System.currentTimeMillis();
+        int before = states.size();
+        states.values().removeIf(cached -> now - cached.loadedAt() > checkTtlMs);
+        logger.debug("Pruned {} token revocation entries", before - states.size());
+    }
+
+    private record CachedState(UserTokenState state, long loadedAt) {
+    }
+}
@@ -27,6 +27,9 @@ public class UserDetailsImpl implements UserDetails {
 
     private Collection<? extends GrantedAuthority> authorities;
 
+    // Version of the account's credentials the access token was issued for
+    private Integer tokenVersion;
+
     public static UserDetailsImpl build(User user) {
         // Sử dụng ID vai trò trực tiếp
         List<GrantedAuthority> authorities = List.of(
@@ -38,7 +41,21 @@ public class UserDetailsImpl implements UserDetails {
                 user.getEmail(),
                 user.getFullName(),
                 user.getPassword(),
-                authorities);
+                authorities,
+                user.getTokenVersion());
+    }
+
+    /**
+     * Build the principal from JWT claims, without loading the user. The
+     * password is not part of the token and stays null.
+     */
+    public static UserDetailsImpl fromClaims(Long id, String username, String email, String fullName,
+            List<String> roles, Integer tokenVersion) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .toList();
+
+        return new UserDetailsImpl(id, username, email, fullName, null, authorities, tokenVersion);
     }
 
 }
\ No newline at end of file
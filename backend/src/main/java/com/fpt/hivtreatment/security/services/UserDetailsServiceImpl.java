@@ -1,11 +1,12 @@
 package com.fpt.hivtreatment.security.services;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.fpt.hivtreatment.cache.UserDetailsCache;
 import com.fpt.hivtreatment.model.entity.User;
 import com.fpt.hivtreatment.repository.UserRepository;
 
@@ -13,13 +14,49 @@ import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
+    /**
+     * Used by login: always read from the database, so a password, role or
+     * status change made on any instance applies to the next login
+     */
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return loadActiveUser(username);
+    }
+
+    /**
+     * Principal for tokens issued before the claims carried id and roles, from
+     * {@link UserDetailsCache}. The cached principal holds no password; the
+     * token version it carries lets {@link TokenRevocationRegistry} reject it
+     * once the account changes.
+     */
+    public UserDetailsImpl loadTokenPrincipal(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, () -> {
+            UserDetailsImpl user = loadActiveUser(username);
+            return new UserDetailsImpl(user.getId(), user.getUsername(), user.getEmail(), user.getFullName(),
+                    null, user.getAuthorities(), user.getTokenVersion());
+        });
+    }
+
+    /**
+     * Called by Spring Security after a successful login when the stored hash
+     * uses another BCrypt cost than configured
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+        userDetailsCache.invalidate(user.getUsername());
+
+        UserDetailsImpl current = (UserDetailsImpl) user;
+        return new UserDetailsImpl(current.getId(), current.getUsername(), current.getEmail(),
+                current.getFullName(), newPassword, current.getAuthorities(), current.getTokenVersion());
+    }
+
+    private UserDetailsImpl loadActiveUser(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
 
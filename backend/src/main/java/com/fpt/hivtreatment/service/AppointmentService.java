@@ -1,7 +1,9 @@
 package com.fpt.hivtreatment.service;
 
 import com.fpt.hivtreatment.payload.request.AppointmentRequest;
+import com.fpt.hivtreatment.payload.request.AppointmentStatusBatchRequest;
 import com.fpt.hivtreatment.payload.response.AppointmentResponse;
+import com.fpt.hivtreatment.payload.response.AppointmentStatusBatchResponse;
 
 import java.util.List;
 import java.util.Map;
@@ -18,11 +20,15 @@ public interface AppointmentService {
     /**
      * Update appointment status
      * 
-     * @param id     the appointment id
-     * @param status the new status
+     * @param id              the appointment id
+     * @param status          the new status
+     * @param expectedVersion version the client last saw, or null to skip the
+     *                        check
      * @return the updated appointment
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if
+     *         the appointment was changed concurrently
      */
-    AppointmentResponse updateStatus(Long id, String status);
+    AppointmentResponse updateStatus(Long id, String status, Long expectedVersion);
 
     /**
      * Get appointments by patient id
@@ -74,6 +80,13 @@ public interface AppointmentService {
      */
     long countAppointmentsByStatus(String status);
 
+    /**
+     * Get appointment counts for every status, served from in-memory counters
+     *
+     * @return count per appointment status
+     */
+    Map<String, Long> getAppointmentStatusCounts();
+
     /**
      * Get appointments for manager dashboard
      * 
@@ -88,13 +101,70 @@ public interface AppointmentService {
     Map<String, Object> getAppointmentsForManager(String status, String startDate, String endDate, int page, int size,
             int limit);
 
+    /**
+     * Get appointments for manager with keyset pagination on (createdAt, id),
+     * newest first. Deep pages cost the same as the first one.
+     *
+     * @param status       optional filter by status
+     * @param startDate    optional filter by start date
+     * @param endDate      optional filter by end date
+     * @param cursor       opaque cursor from the previous page, null for the first
+     *                     page
+     * @param size         page size
+     * @param includeTotal whether to add the (cached) total count
+     * @return map containing appointments, nextCursor and hasMore
+     */
+    Map<String, Object> getAppointmentsForManagerByCursor(String status, String startDate, String endDate,
+            String cursor, int size, boolean includeTotal);
+
+    /**
+     * Aggregate appointment volume per time bucket on the database side
+     *
+     * @param startDate   first schedule date (yyyy-MM-dd), defaults to 30 days
+     *                    before endDate
+     * @param endDate     last schedule date (yyyy-MM-dd), defaults to today
+     * @param granularity bucket size: day, week or month
+     * @param groupBy     series dimension: status, doctor, type or none
+     * @return map containing buckets, one series per dimension value and totals
+     */
+    Map<String, Object> getAppointmentAnalytics(String startDate, String endDate, String granularity,
+            String groupBy);
+
     /**
      * Update appointment status with optional cancellation reason
      * 
      * @param id                 appointment id
      * @param status             new status
      * @param cancellationReason optional reason for cancellation
+     * @param expectedVersion    version the client last saw, or null to skip the
+     *                           check
      * @return map containing updated appointment
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if
+     *         the appointment was changed concurrently
+     */
+    Map<String, Object> updateAppointmentStatus(Long id, String status, String cancellationReason,
+            Long expectedVersion);
+
+    /**
+     * Apply many status transitions in one transaction. Appointments are loaded
+     * with a single query and the slots of cancelled ones are released in bulk.
+     * 
+     * @param items (id, status, cancellationReason) tuples
+     * @return outcome per item; unknown ids or statuses fail only their own item
+     */
+    AppointmentStatusBatchResponse updateAppointmentStatusBatch(List<AppointmentStatusBatchRequest.Item> items);
+
+    /**
+     * Move one bounded batch of stale appointments to a terminal state:
+     * pending appointments whose date has passed are cancelled, confirmed ones
+     * never completed become no-shows, and pending bookings left unconfirmed
+     * too long for an upcoming date are cancelled and their slots released.
+     *
+     * @param batchSize       maximum appointments per category
+     * @param pendingTtlHours how long a pending booking may hold a future slot
+     * @param noShowGraceDays days after the appointment date before a
+     *                        confirmed appointment counts as a no-show
+     * @return number of appointments moved, per category
      */
-    Map<String, Object> updateAppointmentStatus(Long id, String status, String cancellationReason);
+    Map<String, Integer> sweepStaleAppointments(int batchSize, int pendingTtlHours, int noShowGraceDays);
 }
\ No newline at end of file
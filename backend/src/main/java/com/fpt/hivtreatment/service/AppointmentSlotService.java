@@ -1,19 +1,32 @@
 package com.fpt.hivtreatment.service;
 
 import com.fpt.hivtreatment.dto.AppointmentSlotDTO;
+import com.fpt.hivtreatment.payload.request.BulkGenerateAppointmentSlotsRequest;
 import com.fpt.hivtreatment.payload.request.GenerateAppointmentSlotsRequest;
+import com.fpt.hivtreatment.payload.response.BulkSlotGenerationResponse;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface AppointmentSlotService {
     /**
-     * Tạo các slot cho lịch của bác sĩ dựa trên ca làm việc
+     * Tạo các slot cho lịch của bác sĩ dựa trên ca làm việc. Chỉ thêm slot còn
+     * thiếu và xóa slot không còn hợp lệ; slot đã có lịch hẹn luôn được giữ lại.
      * 
      * @param request thông tin request chứa mã lịch, bác sĩ và ca làm việc
-     * @return danh sách các slot đã tạo
+     * @return danh sách tất cả slot hiện tại của lịch
      */
     List<AppointmentSlotDTO> generateAppointmentSlots(GenerateAppointmentSlotsRequest request);
 
+    /**
+     * Tạo slot hàng loạt cho tất cả lịch làm việc trong khoảng ngày (theo bác sĩ
+     * và ca làm việc nếu có). Lịch đã có slot sẽ được bỏ qua.
+     * 
+     * @param request khoảng ngày, danh sách bác sĩ và ca làm việc cần tạo
+     * @return thống kê số lịch và số slot đã tạo
+     */
+    BulkSlotGenerationResponse generateAppointmentSlotsInBulk(BulkGenerateAppointmentSlotsRequest request);
+
     /**
      * Lấy danh sách các slot theo mã lịch bác sĩ
      * 
@@ -30,4 +43,15 @@ public interface AppointmentSlotService {
      * @return danh sách các slot
      */
     List<AppointmentSlotDTO> getSlotsByDoctorAndDate(Long doctorId, String date);
+
+    /**
+     * Tìm các slot còn trống sớm nhất từ một ngày, theo chuyên khoa hoặc tất cả
+     * bác sĩ
+     * 
+     * @param specialty chuyên khoa (bỏ trống để tìm tất cả bác sĩ)
+     * @param fromDate  ngày bắt đầu tìm
+     * @param limit     số slot tối đa cần lấy
+     * @return danh sách slot trống sắp xếp theo ngày và giờ bắt đầu
+     */
+    List<AppointmentSlotDTO> findNextAvailableSlots(String specialty, LocalDate fromDate, int limit);
 }
\ No newline at end of file
@@ -10,6 +10,10 @@ public interface AuthService {
 
     UserResponse registerUser(RegisterRequest registerRequest);
 
+    UserResponse refreshToken(String refreshToken);
+
+    void logout(String refreshToken);
+
     Boolean checkUsernameExists(String username);
 
     Boolean checkEmailExists(String email);
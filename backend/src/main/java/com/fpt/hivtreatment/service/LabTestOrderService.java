@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface LabTestOrderService {
@@ -57,6 +58,11 @@ public interface LabTestOrderService {
      */
     Long countOrdersByStatus(String status);
 
+    /**
+     * Đếm số đơn hàng của tất cả trạng thái trong một truy vấn
+     */
+    Map<String, Long> countOrdersGroupedByStatus();
+
     /**
      * Cập nhật ngày dự kiến trả kết quả xét nghiệm
      */
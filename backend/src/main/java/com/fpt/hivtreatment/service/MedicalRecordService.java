@@ -96,4 +96,11 @@ public interface MedicalRecordService {
      * @return the count
      */
     long countMedicalRecordsByStatus(String status);
+
+    /**
+     * Count medical records of every status in a single query
+     * 
+     * @return count per record status
+     */
+    Map<String, Long> countMedicalRecordsGroupedByStatus();
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.fpt.hivtreatment.service;
+
+import com.fpt.hivtreatment.dto.RefreshTokenRotation;
+
+public interface RefreshTokenService {
+
+    /**
+     * Issue a new refresh token for the user and return its raw value
+     */
+    String issue(Long userId);
+
+    /**
+     * Exchange a refresh token for a new one. The presented token can not be
+     * used again; presenting an already used token revokes all tokens of the
+     * user.
+     */
+    RefreshTokenRotation rotate(String refreshToken);
+
+    void revoke(String refreshToken);
+
+    void revokeAllForUser(Long userId);
+}
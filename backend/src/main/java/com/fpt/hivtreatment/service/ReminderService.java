@@ -1,7 +1,11 @@
 package com.fpt.hivtreatment.service;
 
+import com.fpt.hivtreatment.dto.ReminderDispatchResult;
 import com.fpt.hivtreatment.model.entity.Reminder;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 
 public interface ReminderService {
@@ -48,6 +52,11 @@ public interface ReminderService {
     // Tìm reminders theo trạng thái
     List<Reminder> findByStatus(String status);
 
+    // Tạo nhắc lịch hẹn cho một batch lịch hẹn sắp tới (trong khoảng ngày) và gửi qua WebSocket;
+    // vào ngày fromDate bỏ qua lịch hẹn bắt đầu trước notBefore
+    ReminderDispatchResult dispatchAppointmentReminders(LocalDate fromDate, LocalDate toDate, LocalTime notBefore,
+            int daysBefore, long afterAppointmentId, int batchSize);
+
     // Tìm reminders đang hoạt động theo bệnh nhân và ngày
     List<Reminder> findActiveRemindersByDate(Long patientId, java.time.LocalDate date);
 }
@@ -0,0 +1,21 @@
+package com.fpt.hivtreatment.service;
+
+import com.fpt.hivtreatment.model.entity.AppointmentSlot;
+
+import java.util.function.Function;
+
+public interface SlotBookingService {
+    /**
+     * Claim an appointment slot atomically and run the booking work in the same
+     * transaction. The whole unit is retried a bounded number of times on
+     * transient database failures (lock wait timeout, deadlock).
+     *
+     * @param slotId  the appointment slot to claim
+     * @param booking work executed once the slot is claimed, e.g. saving the
+     *                appointment; an exception rolls the claim back
+     * @return the result of the booking work
+     * @throws com.fpt.hivtreatment.exception.SlotUnavailableException if the
+     *         slot is already taken
+     */
+    <T> T bookSlot(Long slotId, Function<AppointmentSlot, T> booking);
+}
@@ -0,0 +1,26 @@
+package com.fpt.hivtreatment.service;
+
+import com.fpt.hivtreatment.payload.request.AppointmentRequest;
+import com.fpt.hivtreatment.payload.response.AppointmentResponse;
+import com.fpt.hivtreatment.payload.response.SlotHoldResponse;
+
+public interface SlotHoldService {
+
+    /**
+     * Giữ chỗ tạm thời một appointment slot cho bệnh nhân
+     * 
+     * Throws SlotUnavailableException if the slot is booked or held by someone
+     * else.
+     */
+    SlotHoldResponse holdSlot(Long patientId, Long slotId);
+
+    /**
+     * Xác nhận giữ chỗ thành lịch hẹn
+     */
+    AppointmentResponse confirmHold(Long patientId, String holdId, AppointmentRequest request);
+
+    /**
+     * Hủy giữ chỗ
+     */
+    void releaseHold(Long patientId, String holdId);
+}
@@ -0,0 +1,36 @@
+package com.fpt.hivtreatment.service;
+
+import com.fpt.hivtreatment.model.entity.AppointmentSlot;
+import com.fpt.hivtreatment.payload.request.WaitlistRequest;
+import com.fpt.hivtreatment.payload.response.WaitlistResponse;
+
+import java.util.List;
+
+public interface WaitlistService {
+
+    /**
+     * Đăng ký chờ slot của một bác sĩ trong một ngày
+     */
+    WaitlistResponse joinWaitlist(Long patientId, WaitlistRequest request);
+
+    /**
+     * Lấy danh sách chờ của bệnh nhân
+     */
+    List<WaitlistResponse> getWaitlistByPatient(Long patientId);
+
+    /**
+     * Rời danh sách chờ
+     */
+    WaitlistResponse leaveWaitlist(Long patientId, Long waitlistId);
+
+    /**
+     * Hand a freed slot to the next patient waiting for that doctor and date.
+     * Must be called inside the cancelling transaction; the waiter's appointment
+     * is created in that transaction and the patient is notified after commit.
+     *
+     * @param slot              the slot released by a cancellation
+     * @param excludedPatientId patient who released the slot, never reassigned
+     * @return true if the slot was assigned and must stay unavailable
+     */
+    boolean assignFreedSlot(AppointmentSlot slot, Long excludedPatientId);
+}
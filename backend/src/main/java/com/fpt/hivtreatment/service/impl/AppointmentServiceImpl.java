@@ -1,17 +1,30 @@
 package com.fpt.hivtreatment.service.impl;
 
+import com.fpt.hivtreatment.cache.AppointmentCountCache;
+import com.fpt.hivtreatment.cache.AppointmentStatusCounters;
+import com.fpt.hivtreatment.cache.DoctorWorklistCache;
+import com.fpt.hivtreatment.cache.SlotAvailabilityIndex;
+import com.fpt.hivtreatment.cache.SlotHoldRegistry;
+import com.fpt.hivtreatment.dto.AppointmentDailyCount;
+import com.fpt.hivtreatment.dto.AppointmentListView;
 import com.fpt.hivtreatment.exception.ResourceNotFoundException;
+import com.fpt.hivtreatment.exception.SlotUnavailableException;
+import com.fpt.hivtreatment.messaging.AvailabilityEventPublisher;
 import com.fpt.hivtreatment.model.entity.Appointment;
 import com.fpt.hivtreatment.model.entity.AppointmentSlot;
 import com.fpt.hivtreatment.model.entity.DoctorProfile;
 import com.fpt.hivtreatment.model.entity.User;
 import com.fpt.hivtreatment.payload.request.AppointmentRequest;
+import com.fpt.hivtreatment.payload.request.AppointmentStatusBatchRequest;
 import com.fpt.hivtreatment.payload.response.AppointmentResponse;
+import com.fpt.hivtreatment.payload.response.AppointmentStatusBatchResponse;
 import com.fpt.hivtreatment.repository.AppointmentRepository;
 import com.fpt.hivtreatment.repository.AppointmentSlotRepository;
 import com.fpt.hivtreatment.repository.DoctorProfileRepository;
 import com.fpt.hivtreatment.repository.UserRepository;
 import com.fpt.hivtreatment.service.AppointmentService;
+import com.fpt.hivtreatment.service.SlotBookingService;
+import com.fpt.hivtreatment.service.WaitlistService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -20,16 +33,29 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,14 +63,33 @@ import java.util.stream.Collectors;
 public class AppointmentServiceImpl implements AppointmentService {
 
         private static final Logger logger = LoggerFactory.getLogger(AppointmentServiceImpl.class);
+        private static final int MAX_MANAGER_PAGE_SIZE = 200;
+        private static final int DEFAULT_ANALYTICS_DAYS = 30;
+        private static final int MAX_ANALYTICS_DAYS = 366;
+        private static final String UNKNOWN_DIMENSION = "Không xác định";
+        private static final int MAX_STATUS_BATCH_SIZE = 500;
+        public static final String STATUS_PENDING = "Chờ xác nhận";
+        public static final String STATUS_CONFIRMED = "Đã xác nhận";
+        private static final String STATUS_CANCELLED = "Đã hủy";
+        private static final String STATUS_COMPLETED = "Hoàn thành";
+        private static final String STATUS_NO_SHOW = "Không đến";
+        private static final Set<String> APPOINTMENT_STATUSES = Set.of(STATUS_PENDING, STATUS_CONFIRMED,
+                        STATUS_CANCELLED, STATUS_COMPLETED, STATUS_NO_SHOW);
 
         private final AppointmentRepository appointmentRepository;
         private final AppointmentSlotRepository appointmentSlotRepository;
         private final UserRepository userRepository;
         private final DoctorProfileRepository doctorProfileRepository;
+        private final SlotBookingService slotBookingService;
+        private final SlotAvailabilityIndex slotAvailabilityIndex;
+        private final WaitlistService waitlistService;
+        private final SlotHoldRegistry slotHoldRegistry;
+        private final AvailabilityEventPublisher availabilityEventPublisher;
+        private final AppointmentCountCache appointmentCountCache;
+        private final AppointmentStatusCounters appointmentStatusCounters;
+        private final DoctorWorklistCache doctorWorklistCache;
 
         @Override
-        @Transactional
         public AppointmentResponse createAppointment(AppointmentRequest request) {
                 logger.info("Creating appointment with slot ID: {}", request.getAppointmentSlotId());
 
@@ -53,32 +98,27 @@ public class AppointmentServiceImpl implements AppointmentService {
                         logger.info("Appointment date from request: {}", request.getAppointmentDate());
                 }
 
-                // Find the appointment slot
-                AppointmentSlot slot = appointmentSlotRepository.findById(request.getAppointmentSlotId())
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Appointment slot not found with id: "
-                                                                + request.getAppointmentSlotId()));
-
-                // Check if the slot is available
-                if (!slot.getIsAvailable()) {
-                        logger.error("Appointment slot is already booked: {}", request.getAppointmentSlotId());
-                        throw new IllegalStateException("This appointment slot is already booked");
+                // A slot held by another patient is not bookable until the hold ends
+                if (slotHoldRegistry.isHeldByOther(request.getAppointmentSlotId(), request.getPatientId())) {
+                        logger.info("Appointment slot {} is held by another patient", request.getAppointmentSlotId());
+                        throw new SlotUnavailableException(request.getAppointmentSlotId());
                 }
 
-<<<<<<< HEAD
+                // Claim the slot atomically; concurrent bookings for the same slot get a
+                // SlotUnavailableException instead of a second appointment
+                return slotBookingService.bookSlot(request.getAppointmentSlotId(),
+                                slot -> saveAppointment(request, slot));
+        }
+
+        /**
+         * Persist the appointment for a slot that has already been claimed.
+         * Runs inside the booking transaction of {@link SlotBookingService}.
+         */
+        private AppointmentResponse saveAppointment(AppointmentRequest request, AppointmentSlot slot) {
                 // Find the patient - always get patient regardless of anonymous status
                 User patient = userRepository.findById(request.getPatientId())
                                 .orElseThrow(() -> new ResourceNotFoundException(
                                                 "Patient not found with id: " + request.getPatientId()));
-=======
-                // Find the patient
-                User patient = null;
-                if (request.getPatientId() != null && !request.getIsAnonymous()) {
-                        patient = userRepository.findById(request.getPatientId())
-                                        .orElseThrow(() -> new ResourceNotFoundException(
-                                                        "Patient not found with id: " + request.getPatientId()));
-                }
->>>>>>> fd42c148e0431975301ca683137e9cc7dea64a1c
 
                 // Find the doctor
                 DoctorProfile doctor = doctorProfileRepository.findById(request.getDoctorId())
@@ -94,17 +134,17 @@ public class AppointmentServiceImpl implements AppointmentService {
                                 .isAnonymous(request.getIsAnonymous())
                                 .symptoms(request.getSymptoms())
                                 .notes(request.getNotes())
-                                .status("Chờ xác nhận")
+                                .status(STATUS_PENDING)
                                 .build();
 
                 // Save the appointment
                 Appointment savedAppointment = appointmentRepository.save(appointment);
+                appointmentCountCache.invalidateAll();
+                appointmentStatusCounters.recordCreated(savedAppointment.getStatus());
+                doctorWorklistCache.appointmentChanged(savedAppointment);
                 logger.info("Appointment created with ID: {}", savedAppointment.getId());
-
-                // Mark the slot as unavailable
-                slot.setIsAvailable(false);
-                appointmentSlotRepository.save(slot);
-                logger.info("Appointment slot {} marked as unavailable", slot.getId());
+                slotAvailabilityIndex.markBooked(slot.getId());
+                availabilityEventPublisher.slotBooked(slot);
 
                 // Return response
                 return mapToResponse(savedAppointment);
@@ -112,58 +152,47 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         @Override
         @Transactional
-        public AppointmentResponse updateStatus(Long id, String status) {
+        public AppointmentResponse updateStatus(Long id, String status, Long expectedVersion) {
                 logger.info("Updating appointment status with ID: {} to {}", id, status);
 
                 Appointment appointment = appointmentRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException(
                                                 "Appointment not found with id: " + id));
+                checkVersion(appointment, expectedVersion);
 
+                String previousStatus = appointment.getStatus();
                 appointment.setStatus(status);
 
-                // If cancelled, free up the slot
-                if ("Đã hủy".equals(status)) {
-                        appointment.getAppointmentSlot().setIsAvailable(true);
-                        appointmentSlotRepository.save(appointment.getAppointmentSlot());
-                        logger.info("Appointment slot {} marked as available after cancellation",
-                                        appointment.getAppointmentSlot().getId());
+                // If cancelled, hand the slot to the waitlist or free it up (only once)
+                if (STATUS_CANCELLED.equals(status) && !STATUS_CANCELLED.equals(previousStatus)) {
+                        releaseSlot(appointment);
                 }
 
-                Appointment updatedAppointment = appointmentRepository.save(appointment);
+                // Flush now so a concurrent update surfaces here as a conflict
+                Appointment updatedAppointment = appointmentRepository.saveAndFlush(appointment);
+                appointmentCountCache.invalidateAll();
+                appointmentStatusCounters.recordStatusChange(previousStatus, status);
+                doctorWorklistCache.appointmentChanged(updatedAppointment);
                 return mapToResponse(updatedAppointment);
         }
 
         @Override
         public List<AppointmentResponse> getAppointmentsByPatient(Long patientId) {
-                User patient = userRepository.findById(patientId)
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Patient not found with id: " + patientId));
-
-                return appointmentRepository.findByPatient(patient)
-                                .stream()
-                                .map(this::mapToResponse)
-                                .collect(Collectors.toList());
+                return getAppointmentsByPatientAndStatus(patientId, null);
         }
 
         @Override
         public List<AppointmentResponse> getAppointmentsByDoctor(Long doctorId) {
-                DoctorProfile doctor = doctorProfileRepository.findById(doctorId)
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Doctor not found with id: " + doctorId));
-
-                return appointmentRepository.findByDoctor(doctor)
-                                .stream()
-                                .map(this::mapToResponse)
-                                .collect(Collectors.toList());
+                return getAppointmentsByDoctorAndStatus(doctorId, null);
         }
 
         @Override
         public List<AppointmentResponse> getAppointmentsByPatientAndStatus(Long patientId, String status) {
-                User patient = userRepository.findById(patientId)
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Patient not found with id: " + patientId));
+                if (!userRepository.existsById(patientId)) {
+                        throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+                }
 
-                return appointmentRepository.findByPatientAndStatus(patient, status)
+                return appointmentRepository.findListViewsByPatientId(patientId, status)
                                 .stream()
                                 .map(this::mapToResponse)
                                 .collect(Collectors.toList());
@@ -171,11 +200,11 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         @Override
         public List<AppointmentResponse> getAppointmentsByDoctorAndStatus(Long doctorId, String status) {
-                DoctorProfile doctor = doctorProfileRepository.findById(doctorId)
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Doctor not found with id: " + doctorId));
+                if (!doctorProfileRepository.existsById(doctorId)) {
+                        throw new ResourceNotFoundException("Doctor not found with id: " + doctorId);
+                }
 
-                return appointmentRepository.findByDoctorAndStatus(doctor, status)
+                return appointmentRepository.findListViewsByDoctorId(doctorId, status)
                                 .stream()
                                 .map(this::mapToResponse)
                                 .collect(Collectors.toList());
@@ -196,6 +225,11 @@ public class AppointmentServiceImpl implements AppointmentService {
                 return appointmentRepository.countByStatus(status);
         }
 
+        @Override
+        public Map<String, Long> getAppointmentStatusCounts() {
+                return appointmentStatusCounters.snapshot();
+        }
+
         @Override
         public Map<String, Object> getAppointmentsForManager(String status, String startDate, String endDate, int page,
                         int size, int limit) {
@@ -203,11 +237,11 @@ public class AppointmentServiceImpl implements AppointmentService {
                                 status, startDate, endDate, page, size, limit);
 
                 Map<String, Object> result = new HashMap<>();
-                List<Appointment> appointments = new ArrayList<>();
+                List<AppointmentListView> appointments;
 
                 try {
                         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-                        Page<Appointment> pageAppointments;
+                        Page<AppointmentListView> pageAppointments;
 
                         // Filter by status if provided
                         if (status != null && !status.isEmpty()) {
@@ -218,21 +252,21 @@ public class AppointmentServiceImpl implements AppointmentService {
                                                 LocalDate start = LocalDate.parse(startDate,
                                                                 DateTimeFormatter.ISO_DATE);
                                                 LocalDate end = LocalDate.parse(endDate, DateTimeFormatter.ISO_DATE);
-                                                // Implement filtering by status and date range (this would require a
-                                                // custom repository method)
                                                 pageAppointments = appointmentRepository
-                                                                .findByStatusAndDateRange(status, start, end, pageable);
+                                                                .findListViewsByStatusAndDateRange(status, start, end,
+                                                                                pageable);
                                         } catch (DateTimeParseException e) {
                                                 logger.error("Invalid date format: {}, {}", startDate, endDate, e);
-                                                pageAppointments = appointmentRepository.findByStatus(status, pageable);
+                                                pageAppointments = appointmentRepository.findListViewsByStatus(status,
+                                                                pageable);
                                         }
                                 } else {
                                         // Only filter by status
-                                        pageAppointments = appointmentRepository.findByStatus(status, pageable);
+                                        pageAppointments = appointmentRepository.findListViewsByStatus(status, pageable);
                                 }
                         } else {
                                 // Get all appointments
-                                pageAppointments = appointmentRepository.findAll(pageable);
+                                pageAppointments = appointmentRepository.findListViews(pageable);
                         }
 
                         appointments = pageAppointments.getContent();
@@ -260,9 +294,211 @@ public class AppointmentServiceImpl implements AppointmentService {
                 }
         }
 
+        @Override
+        public Map<String, Object> getAppointmentsForManagerByCursor(String status, String startDate, String endDate,
+                        String cursor, int size, boolean includeTotal) {
+                logger.info("Getting appointments for manager with status: {}, startDate: {}, endDate: {}, cursor: {}, size: {}",
+                                status, startDate, endDate, cursor, size);
+
+                String statusFilter = status != null && !status.isEmpty() ? status : null;
+                LocalDate start = null;
+                LocalDate end = null;
+                try {
+                        start = startDate != null && !startDate.isEmpty()
+                                        ? LocalDate.parse(startDate, DateTimeFormatter.ISO_DATE)
+                                        : null;
+                        end = endDate != null && !endDate.isEmpty()
+                                        ? LocalDate.parse(endDate, DateTimeFormatter.ISO_DATE)
+                                        : null;
+                } catch (DateTimeParseException e) {
+                        logger.error("Invalid date format: {}, {}", startDate, endDate, e);
+                        start = null;
+                        end = null;
+                }
+
+                int pageSize = Math.max(1, Math.min(size, MAX_MANAGER_PAGE_SIZE));
+                // Fetch one extra row to know whether another page exists
+                Pageable seek = PageRequest.of(0, pageSize + 1);
+
+                List<AppointmentListView> rows;
+                if (cursor == null || cursor.isEmpty()) {
+                        rows = appointmentRepository.findListViewsForManager(statusFilter, start, end, seek);
+                } else {
+                        Cursor position = Cursor.decode(cursor);
+                        rows = appointmentRepository.findListViewsForManagerAfter(statusFilter, start, end,
+                                        position.createdAt(), position.id(), seek);
+                }
+
+                boolean hasMore = rows.size() > pageSize;
+                List<AppointmentListView> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+                Map<String, Object> result = new HashMap<>();
+                result.put("appointments", pageRows.stream()
+                                .map(this::mapToResponse)
+                                .collect(Collectors.toList()));
+                result.put("size", pageSize);
+                result.put("hasMore", hasMore);
+                result.put("nextCursor", hasMore ? Cursor.of(pageRows.get(pageRows.size() - 1)).encode() : null);
+
+                if (includeTotal) {
+                        LocalDate countStart = start;
+                        LocalDate countEnd = end;
+                        long total = appointmentCountCache.getCount(statusFilter, countStart, countEnd,
+                                        () -> appointmentRepository.countForManager(statusFilter, countStart,
+                                                        countEnd));
+                        result.put("totalItems", total);
+                        result.put("totalPages", (total + pageSize - 1) / pageSize);
+                }
+
+                return result;
+        }
+
+        @Override
+        public Map<String, Object> getAppointmentAnalytics(String startDate, String endDate, String granularity,
+                        String groupBy) {
+                logger.info("Getting appointment analytics with startDate: {}, endDate: {}, granularity: {}, groupBy: {}",
+                                startDate, endDate, granularity, groupBy);
+
+                LocalDate end;
+                LocalDate start;
+                try {
+                        end = endDate != null && !endDate.isEmpty()
+                                        ? LocalDate.parse(endDate, DateTimeFormatter.ISO_DATE)
+                                        : LocalDate.now();
+                        start = startDate != null && !startDate.isEmpty()
+                                        ? LocalDate.parse(startDate, DateTimeFormatter.ISO_DATE)
+                                        : end.minusDays(DEFAULT_ANALYTICS_DAYS - 1);
+                } catch (DateTimeParseException e) {
+                        throw new IllegalArgumentException("Invalid date format, expected yyyy-MM-dd");
+                }
+                if (start.isAfter(end)) {
+                        throw new IllegalArgumentException("startDate must not be after endDate");
+                }
+                if (ChronoUnit.DAYS.between(start, end) >= MAX_ANALYTICS_DAYS) {
+                        throw new IllegalArgumentException("Date range must not exceed " + MAX_ANALYTICS_DAYS + " days");
+                }
+
+                String bucketUnit = granularity != null ? granularity.toLowerCase() : "day";
+                if (!List.of("day", "week", "month").contains(bucketUnit)) {
+                        throw new IllegalArgumentException("granularity must be one of day, week, month");
+                }
+                String dimension = groupBy != null ? groupBy.toLowerCase() : "status";
+                if (!List.of("status", "doctor", "type", "none").contains(dimension)) {
+                        throw new IllegalArgumentException("groupBy must be one of status, doctor, type, none");
+                }
+
+                // Một truy vấn GROUP BY theo ngày/bác sĩ/trạng thái/loại, phần còn lại gộp trong bộ nhớ
+                List<AppointmentDailyCount> rows = appointmentRepository.countDailyByDimensions(start, end);
+
+                List<LocalDate> buckets = new ArrayList<>();
+                for (LocalDate bucket = bucketStart(start, bucketUnit); !bucket.isAfter(end); bucket = nextBucket(bucket,
+                                bucketUnit)) {
+                        buckets.add(bucket);
+                }
+                Map<LocalDate, Integer> bucketIndex = new HashMap<>();
+                for (int i = 0; i < buckets.size(); i++) {
+                        bucketIndex.put(buckets.get(i), i);
+                }
+
+                Map<String, long[]> seriesCounts = new LinkedHashMap<>();
+                Map<String, String> seriesLabels = new HashMap<>();
+                Map<String, Long> byStatus = new TreeMap<>();
+                Map<String, Long> byType = new TreeMap<>();
+                Map<Long, Map<String, Object>> byDoctor = new LinkedHashMap<>();
+                long total = 0;
+
+                for (AppointmentDailyCount row : rows) {
+                        String status = row.status() != null ? row.status() : UNKNOWN_DIMENSION;
+                        String type = row.appointmentType() != null ? row.appointmentType() : UNKNOWN_DIMENSION;
+                        long count = row.count();
+
+                        String key;
+                        String label;
+                        switch (dimension) {
+                                case "doctor" -> {
+                                        key = String.valueOf(row.doctorId());
+                                        label = row.doctorName();
+                                }
+                                case "type" -> {
+                                        key = type;
+                                        label = type;
+                                }
+                                case "none" -> {
+                                        key = "all";
+                                        label = "Tất cả";
+                                }
+                                default -> {
+                                        key = status;
+                                        label = status;
+                                }
+                        }
+                        seriesLabels.putIfAbsent(key, label);
+                        seriesCounts.computeIfAbsent(key, k -> new long[buckets.size()])[bucketIndex
+                                        .get(bucketStart(row.date(), bucketUnit))] += count;
+
+                        byStatus.merge(status, count, Long::sum);
+                        byType.merge(type, count, Long::sum);
+                        Map<String, Object> doctor = byDoctor.computeIfAbsent(row.doctorId(), id -> {
+                                Map<String, Object> entry = new HashMap<>();
+                                entry.put("doctorId", id);
+                                entry.put("doctorName", row.doctorName());
+                                entry.put("count", 0L);
+                                return entry;
+                        });
+                        doctor.put("count", (Long) doctor.get("count") + count);
+                        total += count;
+                }
+
+                List<Map<String, Object>> series = new ArrayList<>();
+                seriesCounts.forEach((key, counts) -> {
+                        Map<String, Object> entry = new HashMap<>();
+                        entry.put("key", key);
+                        entry.put("label", seriesLabels.get(key));
+                        entry.put("counts", counts);
+                        entry.put("total", Arrays.stream(counts).sum());
+                        series.add(entry);
+                });
+
+                Map<String, Object> totals = new HashMap<>();
+                totals.put("byStatus", byStatus);
+                totals.put("byType", byType);
+                totals.put("byDoctor", new ArrayList<>(byDoctor.values()));
+
+                Map<String, Object> result = new HashMap<>();
+                result.put("startDate", start.toString());
+                result.put("endDate", end.toString());
+                result.put("granularity", bucketUnit);
+                result.put("groupBy", dimension);
+                result.put("buckets", buckets.stream().map(LocalDate::toString).collect(Collectors.toList()));
+                result.put("series", series);
+                result.put("totals", totals);
+                result.put("total", total);
+                return result;
+        }
+
+        /**
+         * First day of the bucket containing the date (weeks start on Monday)
+         */
+        private static LocalDate bucketStart(LocalDate date, String bucketUnit) {
+                return switch (bucketUnit) {
+                        case "week" -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                        case "month" -> date.withDayOfMonth(1);
+                        default -> date;
+                };
+        }
+
+        private static LocalDate nextBucket(LocalDate bucket, String bucketUnit) {
+                return switch (bucketUnit) {
+                        case "week" -> bucket.plusWeeks(1);
+                        case "month" -> bucket.plusMonths(1);
+                        default -> bucket.plusDays(1);
+                };
+        }
+
         @Override
         @Transactional
-        public Map<String, Object> updateAppointmentStatus(Long id, String status, String cancellationReason) {
+        public Map<String, Object> updateAppointmentStatus(Long id, String status, String cancellationReason,
+                        Long expectedVersion) {
                 logger.info("Updating appointment status with ID: {} to {}, reason: {}", id, status,
                                 cancellationReason);
 
@@ -271,24 +507,26 @@ public class AppointmentServiceImpl implements AppointmentService {
                 Appointment appointment = appointmentRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException(
                                                 "Appointment not found with id: " + id));
+                checkVersion(appointment, expectedVersion);
 
+                String previousStatus = appointment.getStatus();
                 appointment.setStatus(status);
 
                 // Set cancellation reason if provided and status is cancelled
-                if ("Đã hủy".equals(status) && cancellationReason != null && !cancellationReason.isEmpty()) {
+                if (STATUS_CANCELLED.equals(status) && cancellationReason != null && !cancellationReason.isEmpty()) {
                         appointment.setCancellationReason(cancellationReason);
                         logger.info("Setting cancellation reason: {} for appointment: {}", cancellationReason, id);
                 }
 
-                // If cancelled, free up the slot
-                if ("Đã hủy".equals(status)) {
-                        appointment.getAppointmentSlot().setIsAvailable(true);
-                        appointmentSlotRepository.save(appointment.getAppointmentSlot());
-                        logger.info("Appointment slot {} marked as available after cancellation",
-                                        appointment.getAppointmentSlot().getId());
+                // If cancelled, hand the slot to the waitlist or free it up (only once)
+                if (STATUS_CANCELLED.equals(status) && !STATUS_CANCELLED.equals(previousStatus)) {
+                        releaseSlot(appointment);
                 }
 
-                Appointment updatedAppointment = appointmentRepository.save(appointment);
+                Appointment updatedAppointment = appointmentRepository.saveAndFlush(appointment);
+                appointmentCountCache.invalidateAll();
+                appointmentStatusCounters.recordStatusChange(previousStatus, status);
+                doctorWorklistCache.appointmentChanged(updatedAppointment);
                 result.put("appointment", mapToResponse(updatedAppointment));
                 result.put("success", true);
                 result.put("message", "Appointment status updated successfully");
@@ -296,6 +534,247 @@ public class AppointmentServiceImpl implements AppointmentService {
                 return result;
         }
 
+        @Override
+        @Transactional
+        public AppointmentStatusBatchResponse updateAppointmentStatusBatch(
+                        List<AppointmentStatusBatchRequest.Item> items) {
+                if (items.size() > MAX_STATUS_BATCH_SIZE) {
+                        throw new IllegalArgumentException(
+                                        "A batch must not contain more than " + MAX_STATUS_BATCH_SIZE + " items");
+                }
+                logger.info("Updating status of {} appointments in one batch", items.size());
+
+                // Nạp tất cả lịch hẹn (kèm bệnh nhân, bác sĩ, slot) trong một truy vấn
+                Set<Long> ids = items.stream()
+                                .map(AppointmentStatusBatchRequest.Item::getId)
+                                .collect(Collectors.toSet());
+                Map<Long, Appointment> appointments = appointmentRepository.findAllForStatusUpdate(ids).stream()
+                                .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+                List<AppointmentStatusBatchResponse.ItemResult> results = new ArrayList<>();
+                List<Appointment> changed = new ArrayList<>();
+                List<Appointment> cancelled = new ArrayList<>();
+                Set<Long> seen = new HashSet<>();
+
+                for (AppointmentStatusBatchRequest.Item item : items) {
+                        AppointmentStatusBatchResponse.ItemResult.ItemResultBuilder outcome = AppointmentStatusBatchResponse.ItemResult
+                                        .builder()
+                                        .id(item.getId())
+                                        .status(item.getStatus());
+
+                        Appointment appointment = appointments.get(item.getId());
+                        if (!seen.add(item.getId())) {
+                                results.add(outcome.success(false).message("Duplicate appointment in batch").build());
+                                continue;
+                        }
+                        if (appointment == null) {
+                                results.add(outcome.success(false).message("Appointment not found").build());
+                                continue;
+                        }
+                        if (!APPOINTMENT_STATUSES.contains(item.getStatus())) {
+                                results.add(outcome.success(false).previousStatus(appointment.getStatus())
+                                                .message("Unknown status: " + item.getStatus()).build());
+                                continue;
+                        }
+                        if (item.getVersion() != null && !item.getVersion().equals(appointment.getVersion())) {
+                                results.add(outcome.success(false).previousStatus(appointment.getStatus())
+                                                .version(appointment.getVersion())
+                                                .message("Appointment was modified by someone else").build());
+                                continue;
+                        }
+
+                        String previousStatus = appointment.getStatus();
+                        appointment.setStatus(item.getStatus());
+                        if (STATUS_CANCELLED.equals(item.getStatus()) && item.getCancellationReason() != null
+                                        && !item.getCancellationReason().isEmpty()) {
+                                appointment.setCancellationReason(item.getCancellationReason());
+                        }
+                        // Lịch đã hủy trước đó thì slot đã được trả lại rồi
+                        if (STATUS_CANCELLED.equals(item.getStatus()) && !STATUS_CANCELLED.equals(previousStatus)) {
+                                cancelled.add(appointment);
+                        }
+
+                        changed.add(appointment);
+                        appointmentStatusCounters.recordStatusChange(previousStatus, item.getStatus());
+                        results.add(outcome.success(true).previousStatus(previousStatus).message("Updated").build());
+                }
+
+                appointmentRepository.saveAllAndFlush(changed);
+                releaseSlots(cancelled);
+                if (!changed.isEmpty()) {
+                        appointmentCountCache.invalidateAll();
+                }
+                changed.forEach(doctorWorklistCache::appointmentChanged);
+
+                for (AppointmentStatusBatchResponse.ItemResult result : results) {
+                        if (result.isSuccess()) {
+                                result.setVersion(appointments.get(result.getId()).getVersion());
+                        }
+                }
+
+                int succeeded = changed.size();
+                logger.info("Appointment status batch done: {} updated, {} failed", succeeded,
+                                items.size() - succeeded);
+                return AppointmentStatusBatchResponse.builder()
+                                .requested(items.size())
+                                .succeeded(succeeded)
+                                .failed(items.size() - succeeded)
+                                .results(results)
+                                .build();
+        }
+
+        @Override
+        @Transactional
+        public Map<String, Integer> sweepStaleAppointments(int batchSize, int pendingTtlHours, int noShowGraceDays) {
+                LocalDate today = LocalDate.now();
+                Pageable batch = PageRequest.of(0, batchSize);
+
+                // Chờ xác nhận nhưng ngày khám đã qua: hủy, slot ở quá khứ nên không cần trả lại
+                List<Long> expiredPendingIds = appointmentRepository.findStaleIdsByStatusBefore(STATUS_PENDING, today,
+                                batch);
+                // Đã xác nhận nhưng không được hoàn thành sau thời gian cho phép: đánh dấu không đến
+                List<Long> noShowIds = appointmentRepository.findStaleIdsByStatusBefore(STATUS_CONFIRMED,
+                                today.minusDays(noShowGraceDays), batch);
+                // Chờ xác nhận quá lâu cho một ngày khám sắp tới: hủy và trả slot
+                Date createdBefore = new Date(System.currentTimeMillis() - pendingTtlHours * 3_600_000L);
+                List<Long> abandonedIds = appointmentRepository.findAbandonedPendingIds(STATUS_PENDING, createdBefore,
+                                today, batch);
+
+                List<Appointment> expiredPending = transitionStale(expiredPendingIds, STATUS_PENDING, STATUS_CANCELLED,
+                                "Tự động hủy: quá ngày khám nhưng chưa được xác nhận");
+                List<Appointment> noShow = transitionStale(noShowIds, STATUS_CONFIRMED, STATUS_NO_SHOW, null);
+                List<Appointment> abandoned = transitionStale(abandonedIds, STATUS_PENDING, STATUS_CANCELLED,
+                                "Tự động hủy: quá thời gian chờ xác nhận");
+                List<Appointment> changed = new ArrayList<>(expiredPending);
+                changed.addAll(noShow);
+                changed.addAll(abandoned);
+
+                appointmentRepository.saveAll(changed);
+                releaseSlots(abandoned);
+                if (!changed.isEmpty()) {
+                        appointmentCountCache.invalidateAll();
+                }
+                changed.forEach(doctorWorklistCache::appointmentChanged);
+
+                Map<String, Integer> counts = new HashMap<>();
+                counts.put("expiredPending", expiredPending.size());
+                counts.put("noShow", noShow.size());
+                counts.put("abandonedPending", abandoned.size());
+                return counts;
+        }
+
+        /**
+         * Move the appointments still in {@code expectedStatus} to {@code status}.
+         * Ones that changed since their ids were selected (completed, cancelled or
+         * confirmed in the meantime) are left alone.
+         */
+        private List<Appointment> transitionStale(List<Long> ids, String expectedStatus, String status,
+                        String cancellationReason) {
+                if (ids.isEmpty()) {
+                        return List.of();
+                }
+                List<Appointment> appointments = new ArrayList<>();
+                for (Appointment appointment : appointmentRepository.findAllForStatusUpdate(ids)) {
+                        if (!expectedStatus.equals(appointment.getStatus())) {
+                                logger.debug("Skipping appointment {}: status changed to {} since it was selected",
+                                                appointment.getId(), appointment.getStatus());
+                                continue;
+                        }
+                        appointments.add(appointment);
+                        appointmentStatusCounters.recordStatusChange(appointment.getStatus(), status);
+                        appointment.setStatus(status);
+                        if (cancellationReason != null) {
+                                appointment.setCancellationReason(cancellationReason);
+                        }
+                }
+                return appointments;
+        }
+
+        /**
+         * Release the slots of several cancelled appointments. Waitlisted patients
+         * are served first, slot by slot; every slot nobody was waiting for is
+         * freed with a single UPDATE.
+         */
+        private void releaseSlots(List<Appointment> cancelledAppointments) {
+                List<AppointmentSlot> freed = new ArrayList<>();
+                for (Appointment appointment : cancelledAppointments) {
+                        AppointmentSlot slot = appointment.getAppointmentSlot();
+                        Long patientId = appointment.getPatient() != null ? appointment.getPatient().getId() : null;
+                        if (waitlistService.assignFreedSlot(slot, patientId)) {
+                                logger.info("Appointment slot {} reassigned to waitlist after cancellation", slot.getId());
+                        } else {
+                                freed.add(slot);
+                        }
+                }
+                if (freed.isEmpty()) {
+                        return;
+                }
+
+                appointmentSlotRepository.markAvailable(freed.stream().map(AppointmentSlot::getId).toList());
+                // Không sửa entity đang quản lý: UPDATE hàng loạt đã tăng version của slot
+                for (AppointmentSlot slot : freed) {
+                        slotAvailabilityIndex.markAvailable(slot.getId());
+                        availabilityEventPublisher.slotReleased(slot);
+                }
+                logger.info("{} appointment slots marked as available after cancellation", freed.size());
+        }
+
+        /**
+         * Reject the update when the client saw an older version of the appointment
+         */
+        private void checkVersion(Appointment appointment, Long expectedVersion) {
+                if (expectedVersion != null && !expectedVersion.equals(appointment.getVersion())) {
+                        throw new ObjectOptimisticLockingFailureException(Appointment.class, appointment.getId());
+                }
+        }
+
+        /**
+         * Release the slot of a cancelled appointment. The next patient on the
+         * doctor's waitlist for that date gets it in the same transaction; only
+         * when nobody is waiting does the slot become available again.
+         */
+        private void releaseSlot(Appointment appointment) {
+                AppointmentSlot slot = appointment.getAppointmentSlot();
+                Long patientId = appointment.getPatient() != null ? appointment.getPatient().getId() : null;
+
+                if (waitlistService.assignFreedSlot(slot, patientId)) {
+                        logger.info("Appointment slot {} reassigned to waitlist after cancellation", slot.getId());
+                        return;
+                }
+
+                slot.setIsAvailable(true);
+                appointmentSlotRepository.save(slot);
+                slotAvailabilityIndex.markAvailable(slot.getId());
+                availabilityEventPublisher.slotReleased(slot);
+                logger.info("Appointment slot {} marked as available after cancellation", slot.getId());
+        }
+
+        /**
+         * Map a list read model row; every field is already loaded, nothing is
+         * fetched lazily here.
+         */
+        private AppointmentResponse mapToResponse(AppointmentListView view) {
+                return AppointmentResponse.builder()
+                                .id(view.id())
+                                .patientId(view.patientId())
+                                .patientName(view.patientId() != null ? view.patientName() : "Ẩn danh")
+                                .doctorId(view.doctorId())
+                                .doctorName(view.doctorName())
+                                .appointmentSlotId(view.appointmentSlotId())
+                                .appointmentType(view.appointmentType())
+                                .status(view.status())
+                                .isAnonymous(view.isAnonymous())
+                                .symptoms(view.symptoms())
+                                .notes(view.notes())
+                                .cancellationReason(view.cancellationReason())
+                                .createdAt(view.createdAt())
+                                .appointmentDate(view.scheduleDate() != null ? view.scheduleDate().toString() : "")
+                                .startTime(view.startTime() != null ? view.startTime().toString() : "")
+                                .endTime(view.endTime() != null ? view.endTime().toString() : "")
+                                .version(view.version())
+                                .build();
+        }
+
         private AppointmentResponse mapToResponse(Appointment appointment) {
                 // Use safe formatting approach
                 String appointmentDate = "";
@@ -357,6 +836,36 @@ public class AppointmentServiceImpl implements AppointmentService {
                                 .appointmentDate(appointmentDate)
                                 .startTime(startTime)
                                 .endTime(endTime)
+                                .version(appointment.getVersion())
                                 .build();
         }
-}
\ No newline at end of file
+
+        /**
+         * Position in the (createdAt DESC, id DESC) ordering, encoded as an opaque
+         * URL-safe string
+         */
+        private record Cursor(Date createdAt, Long id) {
+
+                static Cursor of(AppointmentListView view) {
+                        return new Cursor(view.createdAt(), view.id());
+                }
+
+                static Cursor decode(String value) {
+                        try {
+                                String decoded = new String(Base64.getUrlDecoder().decode(value),
+                                                StandardCharsets.UTF_8);
+                                int separator = decoded.indexOf(':');
+                                return new Cursor(new Date(Long.parseLong(decoded.substring(0, separator))),
+                                                Long.parseLong(decoded.substring(separator + 1)));
+                        } catch (RuntimeException e) {
+                                throw new IllegalArgumentException("Invalid cursor: " + value, e);
+                        }
+                }
+
+                String encode() {
+                        String raw = createdAt.getTime() + ":" + id;
+                        return Base64.getUrlEncoder().withoutPadding()
+                                        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+                }
+        }
+}
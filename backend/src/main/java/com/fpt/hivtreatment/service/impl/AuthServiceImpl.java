@@ -1,6 +1,7 @@
 package com.fpt.hivtreatment.service.impl;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.fpt.hivtreatment.dto.LoginRequest;
+import com.fpt.hivtreatment.dto.RefreshTokenRotation;
 import com.fpt.hivtreatment.dto.RegisterRequest;
 import com.fpt.hivtreatment.dto.UserResponse;
 import com.fpt.hivtreatment.model.entity.Role;
@@ -23,8 +26,10 @@ import com.fpt.hivtreatment.model.entity.User;
 import com.fpt.hivtreatment.repository.RoleRepository;
 import com.fpt.hivtreatment.repository.UserRepository;
 import com.fpt.hivtreatment.security.jwt.JwtUtils;
+import com.fpt.hivtreatment.security.services.LoginAuditRecorder;
 import com.fpt.hivtreatment.security.services.UserDetailsImpl;
 import com.fpt.hivtreatment.service.AuthService;
+import com.fpt.hivtreatment.service.RefreshTokenService;
 
 /**
  * Service xử lý chức năng xác thực người dùng
@@ -49,6 +54,12 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private LoginAuditRecorder loginAuditRecorder;
+
     @Override
     public UserResponse authenticateUser(LoginRequest loginRequest) {
         logger.info("Đang xác thực người dùng: {}", loginRequest.getUsername());
@@ -66,6 +77,40 @@ public class AuthServiceImpl implements AuthService {
         // Lấy thông tin người dùng từ Principal
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
+        // Lấy thêm thông tin người dùng từ database
+        Optional<User> userOpt = userRepository.findByUsername(userDetails.getUsername());
+
+        UserResponse userResponse = buildUserResponse(userDetails, userOpt, jwt,
+                refreshTokenService.issue(userDetails.getId()));
+
+        // Ghi audit đăng nhập ở thread nền, không giữ request
+        loginAuditRecorder.recordLogin(userDetails.getId(), userDetails.getUsername(), new Date());
+        return userResponse;
+    }
+
+    @Override
+    public UserResponse refreshToken(String refreshToken) {
+        RefreshTokenRotation rotation = refreshTokenService.rotate(refreshToken);
+
+        // Đọc lại người dùng để token mới mang vai trò và trạng thái hiện tại
+        User user = userRepository.findById(rotation.userId()).orElse(null);
+        if (user == null || Boolean.FALSE.equals(user.getIsActive())) {
+            refreshTokenService.revokeAllForUser(rotation.userId());
+            throw new BadCredentialsException("Tài khoản không tồn tại hoặc đã bị khóa");
+        }
+
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        String jwt = jwtUtils.generateTokenFromUserDetails(userDetails);
+        return buildUserResponse(userDetails, Optional.of(user), jwt, rotation.refreshToken());
+    }
+
+    @Override
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    private UserResponse buildUserResponse(UserDetailsImpl userDetails, Optional<User> userOpt, String jwt,
+            String refreshToken) {
         // Lấy danh sách vai trò
         List<String> roles = new ArrayList<>();
         userDetails.getAuthorities().forEach(authority -> {
@@ -76,8 +121,6 @@ public class AuthServiceImpl implements AuthService {
             roles.add(role);
         });
 
-        logger.info("Người dùng {} đã đăng nhập thành công với vai trò {}", userDetails.getUsername(), roles);
-
         // Tạo đối tượng phản hồi
         UserResponse userResponse = new UserResponse();
         userResponse.setId(userDetails.getId());
@@ -86,9 +129,8 @@ public class AuthServiceImpl implements AuthService {
         userResponse.setFullName(userDetails.getFullName());
         userResponse.setRoles(roles);
         userResponse.setToken(jwt);
+        userResponse.setRefreshToken(refreshToken);
 
-        // Lấy thêm thông tin người dùng từ database
-        Optional<User> userOpt = userRepository.findByUsername(userDetails.getUsername());
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             userResponse.setPhoneNumber(user.getPhoneNumber());
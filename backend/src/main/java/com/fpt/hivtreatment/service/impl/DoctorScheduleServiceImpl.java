@@ -1,7 +1,9 @@
 package com.fpt.hivtreatment.service.impl;
 
+import com.fpt.hivtreatment.cache.SlotAvailabilityIndex;
 import com.fpt.hivtreatment.dto.DoctorScheduleDTO;
 import com.fpt.hivtreatment.exception.ResourceNotFoundException;
+import com.fpt.hivtreatment.messaging.AvailabilityEventPublisher;
 import com.fpt.hivtreatment.model.entity.DoctorProfile;
 import com.fpt.hivtreatment.model.entity.DoctorSchedule;
 import com.fpt.hivtreatment.model.entity.WorkShift;
@@ -34,6 +36,8 @@ public class DoctorScheduleServiceImpl implements DoctorScheduleService {
         private final DoctorProfileRepository doctorProfileRepository;
         private final WorkShiftRepository workShiftRepository;
         private final AppointmentSlotRepository appointmentSlotRepository;
+        private final SlotAvailabilityIndex slotAvailabilityIndex;
+        private final AvailabilityEventPublisher availabilityEventPublisher;
         private static final Logger logger = LoggerFactory.getLogger(DoctorScheduleServiceImpl.class);
 
         @Override
@@ -279,6 +283,12 @@ public class DoctorScheduleServiceImpl implements DoctorScheduleService {
                         throw new IllegalArgumentException("Start time must be before end time");
                 }
 
+                // Slots of the old date move with the schedule
+                slotAvailabilityIndex.evictDay(schedule.getDoctor().getDoctorId(), schedule.getScheduleDate());
+                slotAvailabilityIndex.evictDay(schedule.getDoctor().getDoctorId(), scheduleDTO.getScheduleDate());
+                availabilityEventPublisher.dayChanged(schedule.getDoctor().getDoctorId(), schedule.getScheduleDate());
+                availabilityEventPublisher.dayChanged(schedule.getDoctor().getDoctorId(), scheduleDTO.getScheduleDate());
+
                 // Update the schedule
                 schedule.setScheduleDate(scheduleDTO.getScheduleDate());
                 schedule.setWorkShift(workShift);
@@ -299,6 +309,10 @@ public class DoctorScheduleServiceImpl implements DoctorScheduleService {
                         logger.info("Xóa các appointment slots liên quan đến lịch làm việc ID: {}", id);
                         // Gọi phương thức xóa appointment slots theo doctorScheduleId
                         appointmentSlotRepository.deleteByDoctorScheduleId(id);
+                        slotAvailabilityIndex.evictDay(schedule.getDoctor().getDoctorId(),
+                                        schedule.getScheduleDate());
+                        availabilityEventPublisher.dayChanged(schedule.getDoctor().getDoctorId(),
+                                        schedule.getScheduleDate());
                         logger.info("Đã xóa appointment slots thành công");
                 } catch (Exception e) {
                         logger.error("Lỗi khi xóa appointment slots: {}", e.getMessage(), e);
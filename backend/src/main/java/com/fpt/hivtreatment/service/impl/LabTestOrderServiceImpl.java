@@ -1,5 +1,6 @@
 package com.fpt.hivtreatment.service.impl;
 
+import com.fpt.hivtreatment.dto.StatusCount;
 import com.fpt.hivtreatment.model.entity.LabTestOrder;
 import com.fpt.hivtreatment.model.entity.TestType;
 import com.fpt.hivtreatment.model.entity.User;
@@ -15,7 +16,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -181,6 +184,15 @@ public class LabTestOrderServiceImpl implements LabTestOrderService {
         return labTestOrderRepository.countByStatus(status);
     }
 
+    @Override
+    public Map<String, Long> countOrdersGroupedByStatus() {
+        Map<String, Long> counts = new HashMap<>();
+        for (StatusCount row : labTestOrderRepository.countGroupedByStatus()) {
+            counts.put(row.status(), row.count());
+        }
+        return counts;
+    }
+
     /**
      * Cập nhật ngày dự kiến trả kết quả xét nghiệm
      */
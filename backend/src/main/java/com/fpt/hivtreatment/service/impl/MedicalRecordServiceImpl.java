@@ -1,6 +1,7 @@
 package com.fpt.hivtreatment.service.impl;
 
 import com.fpt.hivtreatment.dto.MedicalRecordDTO;
+import com.fpt.hivtreatment.dto.StatusCount;
 import com.fpt.hivtreatment.exception.ResourceNotFoundException;
 import com.fpt.hivtreatment.model.entity.MedicalRecord;
 import com.fpt.hivtreatment.model.entity.TreatmentProtocol;
@@ -247,6 +248,15 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
                 return medicalRecordRepository.countByRecordStatus(status);
         }
 
+        @Override
+        public Map<String, Long> countMedicalRecordsGroupedByStatus() {
+                Map<String, Long> counts = new HashMap<>();
+                for (StatusCount row : medicalRecordRepository.countGroupedByRecordStatus()) {
+                        counts.put(row.status(), row.count());
+                }
+                return counts;
+        }
+
         /**
          * Maps a MedicalRecord entity to a MedicalRecordDTO
          */
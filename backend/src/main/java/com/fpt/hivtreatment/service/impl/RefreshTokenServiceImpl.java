@@ -0,0 +1,114 @@
+package com.fpt.hivtreatment.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fpt.hivtreatment.dto.RefreshTokenRotation;
+import com.fpt.hivtreatment.model.entity.RefreshToken;
+import com.fpt.hivtreatment.repository.RefreshTokenRepository;
+import com.fpt.hivtreatment.service.RefreshTokenService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rotating refresh tokens stored server-side. Access tokens stay short-lived
+ * and are only renewed through here, so disabling an account takes effect
+ * everywhere within one access-token lifetime.
+ */
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.jwt.refreshExpirationMs:1209600000}")
+    private long refreshExpirationMs;
+
+    @Override
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUserId(userId);
+        refreshToken.setTokenHash(hash(rawToken));
+        refreshToken.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)));
+        refreshTokenRepository.save(refreshToken);
+        return rawToken;
+    }
+
+    @Override
+    // Phát hiện token bị dùng lại thì việc thu hồi vẫn phải được commit
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public RefreshTokenRotation rotate(String rawToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Refresh token không hợp lệ"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshToken.getRevokedAt() != null
+                || refreshTokenRepository.markRevoked(refreshToken.getId(), now) == 0) {
+            // Token đã dùng rồi mà còn bị gửi lại: có thể đã bị lộ, thu hồi cả phiên của người dùng
+            logger.warn("Refresh token {} of user {} was reused, revoking all refresh tokens of the user",
+                    refreshToken.getId(), refreshToken.getUserId());
+            refreshTokenRepository.revokeAllByUserId(refreshToken.getUserId(), now);
+            throw new BadCredentialsException("Refresh token đã được sử dụng");
+        }
+        if (refreshToken.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Refresh token đã hết hạn");
+        }
+
+        return new RefreshTokenRotation(refreshToken.getUserId(), issue(refreshToken.getUserId()));
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(refreshToken -> refreshTokenRepository.markRevoked(refreshToken.getId(),
+                        LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        int revoked = refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+        logger.debug("Revoked {} refresh tokens of user {}", revoked, userId);
+    }
+
+    @Scheduled(cron = "${app.jwt.refreshPurgeCron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.fpt.hivtreatment.service.impl;
 
+import com.fpt.hivtreatment.dto.ReminderCandidate;
+import com.fpt.hivtreatment.dto.ReminderDispatchResult;
 import com.fpt.hivtreatment.model.entity.Reminder;
+import com.fpt.hivtreatment.payload.response.ReminderResponse;
+import com.fpt.hivtreatment.repository.AppointmentRepository;
 import com.fpt.hivtreatment.repository.ReminderRepository;
 import com.fpt.hivtreatment.service.ReminderService;
+import com.fpt.hivtreatment.util.TransactionHooks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -18,7 +30,13 @@ import java.util.ArrayList;
 @Transactional
 public class ReminderServiceImpl implements ReminderService {
 
+    private static final String APPOINTMENT_REMINDER_TYPE = "APPOINTMENT";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
     private final ReminderRepository reminderRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final SimpMessagingTemplate messagingTemplate;
 
     @Override
     public Reminder createReminder(Reminder reminder) {
@@ -183,4 +201,74 @@ public class ReminderServiceImpl implements ReminderService {
                 })
                 .toList();
     }
+
+    @Override
+    public ReminderDispatchResult dispatchAppointmentReminders(LocalDate fromDate, LocalDate toDate,
+            LocalTime notBefore, int daysBefore, long afterAppointmentId, int batchSize) {
+        List<ReminderCandidate> candidates = appointmentRepository.findReminderCandidates(fromDate, toDate,
+                notBefore, AppointmentServiceImpl.STATUS_CONFIRMED, daysBefore, afterAppointmentId, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return new ReminderDispatchResult(0, afterAppointmentId, false);
+        }
+
+        List<Reminder> reminders = new ArrayList<>(candidates.size());
+        for (ReminderCandidate candidate : candidates) {
+            reminders.add(toAppointmentReminder(candidate, daysBefore));
+        }
+        // Unique (appointment_id, days_before_appointment): một instance khác tạo trước thì batch này rollback
+        List<Reminder> saved = reminderRepository.saveAll(reminders);
+
+        // Chỉ gửi tới phiên STOMP đã xác thực của chính bệnh nhân
+        Map<Long, String> usernames = new HashMap<>();
+        candidates.forEach(candidate -> usernames.put(candidate.patientId(), candidate.patientUsername()));
+        List<ReminderResponse> events = saved.stream().map(this::toResponse).toList();
+        TransactionHooks.afterCommit(() -> events.forEach(event -> messagingTemplate.convertAndSendToUser(
+                usernames.get(event.getPatientId()), "/queue/reminders", event)));
+
+        long lastAppointmentId = candidates.get(candidates.size() - 1).appointmentId();
+        log.info("Created {} appointment reminders ({} days before) up to appointment {}", saved.size(),
+                daysBefore, lastAppointmentId);
+        return new ReminderDispatchResult(saved.size(), lastAppointmentId, candidates.size() == batchSize);
+    }
+
+    private Reminder toAppointmentReminder(ReminderCandidate candidate, int daysBefore) {
+        LocalDate today = LocalDate.now();
+        LocalDate dueDate = candidate.scheduleDate().minusDays(daysBefore);
+
+        Reminder reminder = new Reminder();
+        reminder.setPatientId(candidate.patientId());
+        reminder.setAppointmentId(candidate.appointmentId());
+        reminder.setReminderType(APPOINTMENT_REMINDER_TYPE);
+        reminder.setTitle("Nhắc lịch hẹn");
+        reminder.setMessage(String.format("Bạn có lịch %s với bác sĩ %s lúc %s ngày %s.",
+                candidate.appointmentType() != null ? candidate.appointmentType().toLowerCase() : "hẹn",
+                candidate.doctorName() != null ? candidate.doctorName() : "",
+                candidate.startTime() != null ? candidate.startTime().format(TIME_FORMAT) : "",
+                candidate.scheduleDate().format(DATE_FORMAT)));
+        reminder.setStartDate(candidate.scheduleDate());
+        reminder.setEndDate(candidate.scheduleDate());
+        // Bỏ lỡ mốc (ví dụ server tắt) thì nhắc ngay hôm nay
+        reminder.setReminderDate(dueDate.isBefore(today) ? today : dueDate);
+        reminder.setDaysBeforeAppointment(daysBefore);
+        reminder.setIsActive(true);
+        return reminder;
+    }
+
+    private ReminderResponse toResponse(Reminder reminder) {
+        ReminderResponse response = new ReminderResponse();
+        response.setId(reminder.getId());
+        response.setPatientId(reminder.getPatientId());
+        response.setAppointmentId(reminder.getAppointmentId());
+        response.setReminderType(reminder.getReminderType());
+        response.setTitle(reminder.getTitle());
+        response.setMessage(reminder.getMessage());
+        response.setStartDate(reminder.getStartDate());
+        response.setEndDate(reminder.getEndDate());
+        response.setReminderTime(reminder.getReminderTime());
+        response.setReminderDate(reminder.getReminderDate());
+        response.setIsActive(reminder.getIsActive());
+        response.setCreatedAt(reminder.getCreatedAt());
+        response.setUpdatedAt(reminder.getUpdatedAt());
+        return response;
+    }
 }
@@ -0,0 +1,87 @@
+package com.fpt.hivtreatment.service.impl;
+
+import com.fpt.hivtreatment.exception.ResourceNotFoundException;
+import com.fpt.hivtreatment.exception.SlotUnavailableException;
+import com.fpt.hivtreatment.model.entity.AppointmentSlot;
+import com.fpt.hivtreatment.repository.AppointmentSlotRepository;
+import com.fpt.hivtreatment.service.SlotBookingService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Function;
+
+/**
+ * Booking engine for appointment slots.
+ * 
+ * A slot is claimed with a conditional UPDATE (is_available = true -> false)
+ * instead of read-check-write, so only one of many concurrent bookings can win
+ * regardless of how many app instances are running. Losers get a
+ * {@link SlotUnavailableException} and nothing is written for them.
+ */
+@Service
+@RequiredArgsConstructor
+public class SlotBookingServiceImpl implements SlotBookingService {
+        private static final Logger logger = LoggerFactory.getLogger(SlotBookingServiceImpl.class);
+
+        private final AppointmentSlotRepository appointmentSlotRepository;
+        private final PlatformTransactionManager transactionManager;
+
+        @Value("${app.booking.maxAttempts:3}")
+        private int maxAttempts;
+
+        @Value("${app.booking.retryBackoffMs:50}")
+        private long retryBackoffMs;
+
+        @Override
+        public <T> T bookSlot(Long slotId, Function<AppointmentSlot, T> booking) {
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                int attempts = Math.max(1, maxAttempts);
+
+                for (int attempt = 1;; attempt++) {
+                        try {
+                                return transactionTemplate.execute(status -> {
+                                        AppointmentSlot slot = claim(slotId);
+                                        return booking.apply(slot);
+                                });
+                        } catch (TransientDataAccessException e) {
+                                if (attempt >= attempts) {
+                                        logger.error("Giving up booking slot {} after {} attempts", slotId, attempt, e);
+                                        throw e;
+                                }
+                                logger.warn("Transient failure booking slot {} (attempt {}/{}): {}",
+                                                slotId, attempt, attempts, e.getMessage());
+                                backoff(attempt);
+                        }
+                }
+        }
+
+        private AppointmentSlot claim(Long slotId) {
+                if (appointmentSlotRepository.claimSlot(slotId) == 0) {
+                        if (!appointmentSlotRepository.existsById(slotId)) {
+                                throw new ResourceNotFoundException("Appointment slot not found with id: " + slotId);
+                        }
+                        logger.info("Appointment slot {} already taken", slotId);
+                        throw new SlotUnavailableException(slotId);
+                }
+
+                logger.info("Appointment slot {} claimed", slotId);
+                return appointmentSlotRepository.findById(slotId)
+                                .orElseThrow(() -> new ResourceNotFoundException(
+                                                "Appointment slot not found with id: " + slotId));
+        }
+
+        private void backoff(int attempt) {
+                try {
+                        Thread.sleep(retryBackoffMs * attempt);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while retrying slot booking", e);
+                }
+        }
+}
@@ -0,0 +1,85 @@
+package com.fpt.hivtreatment.service.impl;
+
+import com.fpt.hivtreatment.cache.SlotHoldRegistry;
+import com.fpt.hivtreatment.cache.SlotHoldRegistry.SlotHold;
+import com.fpt.hivtreatment.exception.ResourceNotFoundException;
+import com.fpt.hivtreatment.exception.SlotUnavailableException;
+import com.fpt.hivtreatment.model.entity.AppointmentSlot;
+import com.fpt.hivtreatment.payload.request.AppointmentRequest;
+import com.fpt.hivtreatment.payload.response.AppointmentResponse;
+import com.fpt.hivtreatment.payload.response.SlotHoldResponse;
+import com.fpt.hivtreatment.repository.AppointmentSlotRepository;
+import com.fpt.hivtreatment.service.AppointmentService;
+import com.fpt.hivtreatment.service.SlotHoldService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class SlotHoldServiceImpl implements SlotHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotHoldServiceImpl.class);
+
+    private final SlotHoldRegistry slotHoldRegistry;
+    private final AppointmentSlotRepository appointmentSlotRepository;
+    private final AppointmentService appointmentService;
+
+    @Override
+    public SlotHoldResponse holdSlot(Long patientId, Long slotId) {
+        // Plain read: holds never lock the row, booking still claims it atomically
+        AppointmentSlot slot = appointmentSlotRepository.findById(slotId)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment slot not found with id: " + slotId));
+        if (!Boolean.TRUE.equals(slot.getIsAvailable())) {
+            throw new SlotUnavailableException(slotId);
+        }
+
+        SlotHold hold = slotHoldRegistry.hold(slotId, slot.getDoctor().getDoctorId(),
+                slot.getDoctorSchedule().getScheduleDate(), patientId);
+        if (hold == null) {
+            logger.info("Appointment slot {} is held by another patient", slotId);
+            throw new SlotUnavailableException(slotId);
+        }
+
+        logger.info("Patient {} holds slot {} until {}", patientId, slotId, hold.expiresAt());
+        return mapToResponse(hold);
+    }
+
+    @Override
+    public AppointmentResponse confirmHold(Long patientId, String holdId, AppointmentRequest request) {
+        SlotHold hold = getOwnHold(patientId, holdId);
+
+        request.setPatientId(patientId);
+        request.setDoctorId(hold.doctorId());
+        request.setAppointmentSlotId(hold.slotId());
+
+        AppointmentResponse response = appointmentService.createAppointment(request);
+        slotHoldRegistry.release(hold);
+        logger.info("Hold {} confirmed as appointment {}", holdId, response.getId());
+        return response;
+    }
+
+    @Override
+    public void releaseHold(Long patientId, String holdId) {
+        slotHoldRegistry.cancel(getOwnHold(patientId, holdId));
+    }
+
+    private SlotHold getOwnHold(Long patientId, String holdId) {
+        SlotHold hold = slotHoldRegistry.getActive(holdId);
+        if (hold == null || !hold.patientId().equals(patientId)) {
+            throw new ResourceNotFoundException("Slot hold not found or expired: " + holdId);
+        }
+        return hold;
+    }
+
+    private SlotHoldResponse mapToResponse(SlotHold hold) {
+        return SlotHoldResponse.builder()
+                .holdId(hold.holdId())
+                .appointmentSlotId(hold.slotId())
+                .doctorId(hold.doctorId())
+                .scheduleDate(hold.date())
+                .expiresAt(hold.expiresAt())
+                .build();
+    }
+}
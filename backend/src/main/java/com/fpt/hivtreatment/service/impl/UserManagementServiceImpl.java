@@ -9,6 +9,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fpt.hivtreatment.cache.UserDetailsCache;
 import com.fpt.hivtreatment.dto.UserCreateRequest;
 import com.fpt.hivtreatment.dto.UserResponse;
 import com.fpt.hivtreatment.dto.UserUpdateRequest;
@@ -17,6 +18,8 @@ import com.fpt.hivtreatment.model.entity.User;
 import com.fpt.hivtreatment.exception.ResourceNotFoundException;
 import com.fpt.hivtreatment.repository.RoleRepository;
 import com.fpt.hivtreatment.repository.UserRepository;
+import com.fpt.hivtreatment.security.services.TokenRevocationRegistry;
+import com.fpt.hivtreatment.service.RefreshTokenService;
 import com.fpt.hivtreatment.service.UserManagementService;
 
 @Service
@@ -28,6 +31,15 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @Autowired
     private PasswordEncoder passwordEncoder; // Phương thức trích xuất logic xử lý filters chung
 
@@ -192,17 +204,26 @@ public class UserManagementServiceImpl implements UserManagementService {
         if (request.getAddress() != null) {
             user.setAddress(request.getAddress());
         }
-        if (request.getIsActive() != null) {
+        if (request.getIsActive() != null && !request.getIsActive().equals(user.getIsActive())) {
             user.setIsActive(request.getIsActive());
+            // Token đã cấp mang thông tin cũ; tài khoản bị khóa thì bị từ chối cho đến khi mở lại
+            tokenRevocationRegistry.revokeTokens(user);
+            if (!request.getIsActive()) {
+                refreshTokenService.revokeAllForUser(user.getId());
+            }
         }
         if (request.getRoleId() != null) {
             Role role = roleRepository.findById(request.getRoleId())
                     .orElseThrow(() -> new ResourceNotFoundException(
                             "Không tìm thấy vai trò với id: " + request.getRoleId()));
+            if (!role.getId().equals(user.getRole().getId())) {
+                tokenRevocationRegistry.revokeTokens(user);
+            }
             user.setRole(role);
         }
 
         User updatedUser = userRepository.save(user);
+        userDetailsCache.invalidate(updatedUser.getUsername());
         return mapUserToResponse(updatedUser);
     }
 
@@ -240,12 +261,15 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Override
     @Transactional
     public void deleteUser(Long id) {
-        findUserById(id); // Validate user exists first
+        User user = findUserById(id); // Validate user exists first
 
         int deleted = userRepository.deleteUserById(id);
         if (deleted == 0) {
             throw new RuntimeException("Không thể xóa người dùng với ID: " + id);
         }
+        tokenRevocationRegistry.credentialsChanged(id);
+        refreshTokenService.revokeAllForUser(id);
+        userDetailsCache.invalidate(user.getUsername());
     }
 
     @Override
@@ -253,7 +277,11 @@ public class UserManagementServiceImpl implements UserManagementService {
     public void resetPassword(Long id, String newPassword) {
         User user = findUserById(id);
         user.setPassword(passwordEncoder.encode(newPassword));
+        tokenRevocationRegistry.revokeTokens(user);
         userRepository.save(user);
+        userDetailsCache.invalidate(user.getUsername());
+        // Đổi mật khẩu thì buộc đăng nhập lại trên mọi thiết bị
+        refreshTokenService.revokeAllForUser(id);
     }
 
     /**
@@ -0,0 +1,180 @@
+package com.fpt.hivtreatment.service.impl;
+
+import com.fpt.hivtreatment.cache.AppointmentStatusCounters;
+import com.fpt.hivtreatment.cache.DoctorWorklistCache;
+import com.fpt.hivtreatment.exception.ResourceNotFoundException;
+import com.fpt.hivtreatment.model.entity.Appointment;
+import com.fpt.hivtreatment.model.entity.AppointmentSlot;
+import com.fpt.hivtreatment.model.entity.AppointmentWaitlist;
+import com.fpt.hivtreatment.model.entity.DoctorProfile;
+import com.fpt.hivtreatment.model.entity.User;
+import com.fpt.hivtreatment.payload.request.WaitlistRequest;
+import com.fpt.hivtreatment.payload.response.WaitlistResponse;
+import com.fpt.hivtreatment.repository.AppointmentRepository;
+import com.fpt.hivtreatment.repository.AppointmentWaitlistRepository;
+import com.fpt.hivtreatment.repository.DoctorProfileRepository;
+import com.fpt.hivtreatment.repository.UserRepository;
+import com.fpt.hivtreatment.service.WaitlistService;
+import com.fpt.hivtreatment.util.TransactionHooks;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistServiceImpl.class);
+
+    static final String STATUS_WAITING = "Đang chờ";
+    static final String STATUS_ASSIGNED = "Đã xếp lịch";
+    static final String STATUS_CANCELLED = "Đã hủy";
+
+    private final AppointmentWaitlistRepository waitlistRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final AppointmentStatusCounters appointmentStatusCounters;
+    private final DoctorWorklistCache doctorWorklistCache;
+
+    @Override
+    @Transactional
+    public WaitlistResponse joinWaitlist(Long patientId, WaitlistRequest request) {
+        if (request.getWaitDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Không thể đăng ký chờ cho ngày đã qua");
+        }
+
+        if (waitlistRepository.existsByPatientIdAndDoctorDoctorIdAndWaitDateAndStatus(patientId,
+                request.getDoctorId(), request.getWaitDate(), STATUS_WAITING)) {
+            throw new IllegalStateException("Bạn đã có trong danh sách chờ của bác sĩ này cho ngày "
+                    + request.getWaitDate());
+        }
+
+        User patient = userRepository.findById(patientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
+        DoctorProfile doctor = doctorProfileRepository.findById(request.getDoctorId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Doctor not found with id: " + request.getDoctorId()));
+
+        AppointmentWaitlist entry = AppointmentWaitlist.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .waitDate(request.getWaitDate())
+                .appointmentType(request.getAppointmentType())
+                .isAnonymous(Boolean.TRUE.equals(request.getIsAnonymous()))
+                .symptoms(request.getSymptoms())
+                .notes(request.getNotes())
+                .build();
+
+        AppointmentWaitlist saved = waitlistRepository.save(entry);
+        logger.info("Patient {} joined waitlist {} for doctor {} on {}", patientId, saved.getId(),
+                request.getDoctorId(), request.getWaitDate());
+        return mapToResponse(saved);
+    }
+
+    @Override
+    public List<WaitlistResponse> getWaitlistByPatient(Long patientId) {
+        return waitlistRepository.findByPatientIdOrderByCreatedAtDesc(patientId)
+                .stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public WaitlistResponse leaveWaitlist(Long patientId, Long waitlistId) {
+        AppointmentWaitlist entry = waitlistRepository.findById(waitlistId)
+                .filter(w -> w.getPatient().getId().equals(patientId))
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + waitlistId));
+
+        if (!STATUS_WAITING.equals(entry.getStatus())) {
+            throw new IllegalStateException("Chỉ có thể hủy đăng ký đang chờ");
+        }
+
+        entry.setStatus(STATUS_CANCELLED);
+        return mapToResponse(waitlistRepository.save(entry));
+    }
+
+    @Override
+    @Transactional
+    public boolean assignFreedSlot(AppointmentSlot slot, Long excludedPatientId) {
+        LocalDate slotDate = slot.getDoctorSchedule().getScheduleDate();
+        LocalDate today = LocalDate.now();
+        // Slot đã qua (kể cả slot hôm nay đã tới giờ bắt đầu) thì không xếp cho người chờ
+        if (slotDate.isBefore(today) || (slotDate.equals(today) && slot.getTimeSlot() != null
+                && !slot.getTimeSlot().getStartTime().isAfter(LocalTime.now()))) {
+            return false;
+        }
+
+        Long doctorId = slot.getDoctor().getDoctorId();
+        List<AppointmentWaitlist> next = waitlistRepository.findNextWaitingForUpdate(doctorId, slotDate,
+                STATUS_WAITING, excludedPatientId, PageRequest.of(0, 1));
+        if (next.isEmpty()) {
+            return false;
+        }
+
+        AppointmentWaitlist entry = next.get(0);
+        Appointment appointment = appointmentRepository.save(Appointment.builder()
+                .patient(entry.getPatient())
+                .doctor(slot.getDoctor())
+                .appointmentSlot(slot)
+                .appointmentType(entry.getAppointmentType())
+                .isAnonymous(entry.getIsAnonymous())
+                .symptoms(entry.getSymptoms())
+                .notes(entry.getNotes())
+                .status(AppointmentServiceImpl.STATUS_PENDING)
+                .build());
+        appointmentStatusCounters.recordCreated(appointment.getStatus());
+        doctorWorklistCache.appointmentChanged(appointment);
+
+        entry.setStatus(STATUS_ASSIGNED);
+        entry.setAppointment(appointment);
+        entry.setAssignedAt(new Date());
+        WaitlistResponse event = mapToResponse(waitlistRepository.save(entry));
+
+        logger.info("Slot {} reassigned from waitlist {} to patient {} as appointment {}", slot.getId(),
+                entry.getId(), entry.getPatient().getId(), appointment.getId());
+
+        // Chỉ gửi tới phiên STOMP đã xác thực của chính bệnh nhân
+        String patientUsername = entry.getPatient().getUsername();
+        TransactionHooks.afterCommit(
+                () -> messagingTemplate.convertAndSendToUser(patientUsername, "/queue/waitlist", event));
+        return true;
+    }
+
+    private WaitlistResponse mapToResponse(AppointmentWaitlist entry) {
+        WaitlistResponse.WaitlistResponseBuilder builder = WaitlistResponse.builder()
+                .id(entry.getId())
+                .patientId(entry.getPatient().getId())
+                .doctorId(entry.getDoctor().getDoctorId())
+                .doctorName(entry.getDoctor().getUser() != null ? entry.getDoctor().getUser().getFullName() : null)
+                .waitDate(entry.getWaitDate())
+                .appointmentType(entry.getAppointmentType())
+                .status(entry.getStatus())
+                .createdAt(entry.getCreatedAt())
+                .assignedAt(entry.getAssignedAt());
+
+        Appointment appointment = entry.getAppointment();
+        if (appointment != null) {
+            AppointmentSlot slot = appointment.getAppointmentSlot();
+            builder.appointmentId(appointment.getId())
+                    .appointmentSlotId(slot.getId());
+            if (slot.getTimeSlot() != null) {
+                builder.startTime(slot.getTimeSlot().getStartTime().toString())
+                        .endTime(slot.getTimeSlot().getEndTime().toString());
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.fpt.hivtreatment.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Run in-memory side effects (cache patches, websocket pushes) only once the
+ * surrounding transaction has committed.
+ * 
+ * The action never affects the business operation: it does not run on
+ * rollback, and an exception it throws is logged instead of reaching the
+ * caller after the commit already succeeded.
+ */
+public final class TransactionHooks {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionHooks.class);
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Run the action after the current transaction commits, or right away when
+     * there is no transaction
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runSafely(action);
+                }
+            });
+        } else {
+            runSafely(action);
+        }
+    }
+
+    /**
+     * Run the action once the current transaction ends, whether it commits or
+     * rolls back. Does nothing when there is no transaction.
+     */
+    public static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    runSafely(action);
+                }
+            });
+        }
+    }
+
+    private static void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            logger.error("After-commit action failed", e);
+        }
+    }
+}
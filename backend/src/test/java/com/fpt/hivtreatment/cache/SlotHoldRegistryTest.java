@@ -0,0 +1,79 @@
+package com.fpt.hivtreatment.cache;
+
+import com.fpt.hivtreatment.cache.SlotHoldRegistry.SlotHold;
+import com.fpt.hivtreatment.messaging.AvailabilityEventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies slot holds stay consistent when a patient takes over another
+ * patient's expired hold
+ */
+@ExtendWith(MockitoExtension.class)
+class SlotHoldRegistryTest {
+
+    private static final Long DOCTOR_ID = 1L;
+    private static final Long SLOT_ID = 10L;
+    private static final Long OTHER_SLOT_ID = 11L;
+    private static final Long PATIENT_A = 100L;
+    private static final Long PATIENT_B = 200L;
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+
+    @Mock
+    private AvailabilityEventPublisher availabilityEventPublisher;
+
+    @InjectMocks
+    private SlotHoldRegistry slotHoldRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(slotHoldRegistry, "holdTtlSeconds", 300L);
+    }
+
+    @Test
+    void takenOverHoldIsNotCancelledByItsFormerPatient() {
+        // Patient A's hold expires right away
+        ReflectionTestUtils.setField(slotHoldRegistry, "holdTtlSeconds", 0L);
+        assertNotNull(slotHoldRegistry.hold(SLOT_ID, DOCTOR_ID, DATE, PATIENT_A));
+        ReflectionTestUtils.setField(slotHoldRegistry, "holdTtlSeconds", 300L);
+
+        SlotHold holdB = slotHoldRegistry.hold(SLOT_ID, DOCTOR_ID, DATE, PATIENT_B);
+        assertNotNull(holdB);
+
+        // A holding another slot must not release the slot B now holds
+        assertNotNull(slotHoldRegistry.hold(OTHER_SLOT_ID, DOCTOR_ID, DATE, PATIENT_A));
+
+        assertTrue(slotHoldRegistry.isHeldByOther(SLOT_ID, PATIENT_A));
+        assertEquals(holdB, slotHoldRegistry.getActive(holdB.holdId()));
+        verify(availabilityEventPublisher, never()).slotUnheld(any(), any(), eq(SLOT_ID));
+    }
+
+    @Test
+    void activeHoldOfAnotherPatientCannotBeTaken() {
+        assertNotNull(slotHoldRegistry.hold(SLOT_ID, DOCTOR_ID, DATE, PATIENT_A));
+
+        assertNull(slotHoldRegistry.hold(SLOT_ID, DOCTOR_ID, DATE, PATIENT_B));
+        assertTrue(slotHoldRegistry.isHeldByOther(SLOT_ID, PATIENT_B));
+    }
+
+    @Test
+    void newHoldReleasesPatientsPreviousSlot() {
+        assertNotNull(slotHoldRegistry.hold(SLOT_ID, DOCTOR_ID, DATE, PATIENT_A));
+        assertNotNull(slotHoldRegistry.hold(OTHER_SLOT_ID, DOCTOR_ID, DATE, PATIENT_A));
+
+        assertFalse(slotHoldRegistry.isHeld(SLOT_ID));
+        verify(availabilityEventPublisher).slotUnheld(DOCTOR_ID, DATE, SLOT_ID);
+    }
+}
@@ -0,0 +1,173 @@
+package com.fpt.hivtreatment.repository;
+
+import com.fpt.hivtreatment.dto.AppointmentListView;
+import com.fpt.hivtreatment.dto.StatusCount;
+import com.fpt.hivtreatment.model.entity.Appointment;
+import com.fpt.hivtreatment.model.entity.AppointmentSlot;
+import com.fpt.hivtreatment.model.entity.DoctorProfile;
+import com.fpt.hivtreatment.model.entity.DoctorSchedule;
+import com.fpt.hivtreatment.model.entity.Role;
+import com.fpt.hivtreatment.model.entity.TimeSlot;
+import com.fpt.hivtreatment.model.entity.User;
+import com.fpt.hivtreatment.model.entity.WorkShift;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the appointment list read model loads a page with a constant
+ * number of SQL statements, whatever the page size.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+class AppointmentRepositoryTest {
+
+    private static final int APPOINTMENT_COUNT = 60;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long doctorId;
+    private Long patientId;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("PATIENT");
+        entityManager.persist(role);
+
+        User patient = User.builder().username("patient").password("x").fullName("Patient").role(role).build();
+        User doctorUser = User.builder().username("doctor").password("x").fullName("Doctor").role(role).build();
+        entityManager.persist(patient);
+        entityManager.persist(doctorUser);
+
+        DoctorProfile doctor = DoctorProfile.builder().user(doctorUser).specialty("HIV").build();
+        entityManager.persist(doctor);
+
+        WorkShift shift = WorkShift.builder()
+                .shiftName("Sáng")
+                .startTime(LocalTime.of(7, 0))
+                .endTime(LocalTime.of(11, 0))
+                .build();
+        entityManager.persist(shift);
+
+        LocalDate date = LocalDate.now().plusDays(1);
+        for (int i = 0; i < APPOINTMENT_COUNT; i++) {
+            // A new schedule and time slot per row, so lazy loading would need distinct selects
+            DoctorSchedule schedule = DoctorSchedule.builder()
+                    .doctor(doctor)
+                    .scheduleDate(date.plusDays(i))
+                    .workShift(shift)
+                    .build();
+            entityManager.persist(schedule);
+
+            TimeSlot timeSlot = TimeSlot.builder()
+                    .startTime(LocalTime.of(7, 0).plusMinutes(i))
+                    .endTime(LocalTime.of(7, 30).plusMinutes(i))
+                    .build();
+            entityManager.persist(timeSlot);
+
+            AppointmentSlot slot = AppointmentSlot.builder()
+                    .doctorSchedule(schedule)
+                    .timeSlot(timeSlot)
+                    .doctor(doctor)
+                    .isAvailable(false)
+                    .build();
+            entityManager.persist(slot);
+
+            entityManager.persist(Appointment.builder()
+                    .patient(patient)
+                    .doctor(doctor)
+                    .appointmentSlot(slot)
+                    .appointmentType("Khám")
+                    .status("Chờ xác nhận")
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        doctorId = doctor.getDoctorId();
+        patientId = patient.getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void pageStatementCountDoesNotGrowWithPageSize() {
+        long smallPage = statementsFor(() -> assertEquals(5, page(5).getNumberOfElements()));
+        long largePage = statementsFor(() -> assertEquals(50, page(50).getNumberOfElements()));
+
+        // One select for the rows plus one count query
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void doctorAndPatientListsUseSingleStatement() {
+        long byDoctor = statementsFor(() -> assertEquals(APPOINTMENT_COUNT,
+                appointmentRepository.findListViewsByDoctorId(doctorId, null).size()));
+        long byPatient = statementsFor(() -> assertEquals(APPOINTMENT_COUNT,
+                appointmentRepository.findListViewsByPatientId(patientId, "Chờ xác nhận").size()));
+
+        assertEquals(1, byDoctor);
+        assertEquals(1, byPatient);
+    }
+
+    @Test
+    void listViewCarriesDisplayFields() {
+        AppointmentListView view = page(1).getContent().get(0);
+
+        assertEquals("Patient", view.patientName());
+        assertEquals("Doctor", view.doctorName());
+        assertNotNull(view.scheduleDate());
+        assertNotNull(view.startTime());
+        assertNotNull(view.endTime());
+    }
+
+    @Test
+    void statusCountsUseSingleGroupedStatement() {
+        List<StatusCount> counts = new ArrayList<>();
+        long statements = statementsFor(() -> counts.addAll(appointmentRepository.countGroupedByStatus()));
+
+        assertEquals(1, statements);
+        assertEquals(1, counts.size());
+        assertEquals("Chờ xác nhận", counts.get(0).status());
+        assertEquals(APPOINTMENT_COUNT, counts.get(0).count().longValue());
+    }
+
+    private Page<AppointmentListView> page(int size) {
+        return appointmentRepository.findListViews(PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    private long statementsFor(Runnable query) {
+        entityManager.clear();
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
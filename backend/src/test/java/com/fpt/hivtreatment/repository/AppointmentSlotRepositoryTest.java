@@ -0,0 +1,101 @@
+package com.fpt.hivtreatment.repository;
+
+import com.fpt.hivtreatment.model.entity.AppointmentSlot;
+import com.fpt.hivtreatment.model.entity.DoctorProfile;
+import com.fpt.hivtreatment.model.entity.DoctorSchedule;
+import com.fpt.hivtreatment.model.entity.Role;
+import com.fpt.hivtreatment.model.entity.TimeSlot;
+import com.fpt.hivtreatment.model.entity.User;
+import com.fpt.hivtreatment.model.entity.WorkShift;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that claiming a slot is a conditional UPDATE in the database, so only
+ * one of two bookings for the same slot can succeed.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+class AppointmentSlotRepositoryTest {
+
+    @Autowired
+    private AppointmentSlotRepository appointmentSlotRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long slotId;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("DOCTOR");
+        entityManager.persist(role);
+
+        User doctorUser = User.builder().username("doctor").password("x").fullName("Doctor").role(role).build();
+        entityManager.persist(doctorUser);
+
+        DoctorProfile doctor = DoctorProfile.builder().user(doctorUser).specialty("HIV").build();
+        entityManager.persist(doctor);
+
+        WorkShift shift = WorkShift.builder()
+                .shiftName("Sáng")
+                .startTime(LocalTime.of(7, 0))
+                .endTime(LocalTime.of(11, 0))
+                .build();
+        entityManager.persist(shift);
+
+        DoctorSchedule schedule = DoctorSchedule.builder()
+                .doctor(doctor)
+                .scheduleDate(LocalDate.now().plusDays(1))
+                .workShift(shift)
+                .build();
+        entityManager.persist(schedule);
+
+        TimeSlot timeSlot = TimeSlot.builder()
+                .startTime(LocalTime.of(7, 0))
+                .endTime(LocalTime.of(7, 30))
+                .build();
+        entityManager.persist(timeSlot);
+
+        AppointmentSlot slot = AppointmentSlot.builder()
+                .doctorSchedule(schedule)
+                .timeSlot(timeSlot)
+                .doctor(doctor)
+                .build();
+        entityManager.persist(slot);
+
+        entityManager.flush();
+        entityManager.clear();
+        slotId = slot.getId();
+    }
+
+    @Test
+    void slotCanOnlyBeClaimedOnce() {
+        assertEquals(1, appointmentSlotRepository.claimSlot(slotId));
+        assertEquals(0, appointmentSlotRepository.claimSlot(slotId));
+
+        entityManager.clear();
+        assertFalse(appointmentSlotRepository.findById(slotId).orElseThrow().getIsAvailable());
+    }
+
+    @Test
+    void releasedSlotCanBeClaimedAgain() {
+        assertEquals(1, appointmentSlotRepository.claimSlot(slotId));
+        assertEquals(1, appointmentSlotRepository.markAvailable(List.of(slotId)));
+
+        assertEquals(1, appointmentSlotRepository.claimSlot(slotId));
+        assertEquals(0, appointmentSlotRepository.claimSlot(slotId));
+    }
+}
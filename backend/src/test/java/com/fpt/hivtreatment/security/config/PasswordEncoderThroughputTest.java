@@ -0,0 +1,79 @@
+package com.fpt.hivtreatment.security.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Password checks per second per core for each BCrypt cost, i.e. the upper
+ * bound of logins/sec the login endpoint can reach on this machine. Not part
+ * of the normal build; run with:
+ *
+ * mvn test -Dtest=PasswordEncoderThroughputTest -Dbenchmark=true
+ * [-Dbenchmark.strengths=8,10,12] [-Dbenchmark.durationMs=3000]
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PasswordEncoderThroughputTest {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderThroughputTest.class);
+
+    @Test
+    void passwordChecksPerSecondPerCore() throws Exception {
+        String[] strengths = System.getProperty("benchmark.strengths", "8,10,12").split(",");
+        long durationMs = Long.getLong("benchmark.durationMs", 3000L);
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (String value : strengths) {
+            int strength = Integer.parseInt(value.trim());
+            TunableBCryptPasswordEncoder encoder = new TunableBCryptPasswordEncoder(strength);
+            String hash = encoder.encode("secret");
+
+            // Khởi động JIT trước khi đo
+            encoder.matches("secret", hash);
+
+            long checks = run(encoder, hash, threads, durationMs);
+            double perSecond = checks * 1000.0 / durationMs;
+            logger.info("BCrypt cost {}: {} checks/s on {} threads, {} checks/s per core", strength,
+                    String.format("%.1f", perSecond), threads, String.format("%.1f", perSecond / threads));
+            assertTrue(checks > 0);
+        }
+    }
+
+    private static long run(TunableBCryptPasswordEncoder encoder, String hash, int threads, long durationMs)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    long count = 0;
+                    while (System.nanoTime() < deadline) {
+                        assertTrue(encoder.matches("secret", hash));
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
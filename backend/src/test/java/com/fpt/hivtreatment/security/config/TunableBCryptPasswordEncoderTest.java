@@ -0,0 +1,35 @@
+package com.fpt.hivtreatment.security.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TunableBCryptPasswordEncoder to verify hashes converge to
+ * the configured cost
+ */
+class TunableBCryptPasswordEncoderTest {
+
+    @Test
+    void hashesWithAnotherCostAreUpgradedAndStillMatch() {
+        TunableBCryptPasswordEncoder encoder = new TunableBCryptPasswordEncoder(5);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+        String costlierHash = new BCryptPasswordEncoder(6).encode("secret");
+
+        assertTrue(encoder.matches("secret", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+        assertTrue(encoder.upgradeEncoding(costlierHash));
+    }
+
+    @Test
+    void hashesWithConfiguredCostAreKept() {
+        TunableBCryptPasswordEncoder encoder = new TunableBCryptPasswordEncoder(5);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertFalse(encoder.upgradeEncoding(hash));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.fpt.hivtreatment.security.jwt;
+
+import com.fpt.hivtreatment.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JwtUtils to verify tokens are checked once and carry the
+ * principal in their claims
+ */
+class JwtUtilsTest {
+
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("test-secret-key-for-hiv-treatment-jwt-signing-0123456789".getBytes());
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = newJwtUtils(SECRET, 60_000);
+    }
+
+    @Test
+    void verifyReturnsClaimsCarryingThePrincipal() {
+        String token = jwtUtils.generateJwtToken(authenticationFor(7L, "patient", "1"));
+
+        Claims claims = jwtUtils.verifyJwtToken(token);
+
+        assertNotNull(claims);
+        assertEquals("patient", claims.getSubject());
+        UserDetailsImpl userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+        assertEquals(7L, userDetails.getId());
+        assertEquals("Patient", userDetails.getFullName());
+        assertEquals(List.of("1"), userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertNull(userDetails.getPassword());
+    }
+
+    @Test
+    void verifyRejectsTamperedToken() {
+        String token = jwtUtils.generateJwtToken(authenticationFor(7L, "patient", "1"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(jwtUtils.verifyJwtToken(tampered));
+        assertFalse(jwtUtils.validateJwtToken(tampered));
+    }
+
+    @Test
+    void verifyRejectsTokenSignedWithAnotherKey() {
+        String otherSecret = Base64.getEncoder()
+                .encodeToString("another-secret-key-that-is-long-enough-for-hmac-sha-256".getBytes());
+        String token = newJwtUtils(otherSecret, 60_000).generateJwtToken(authenticationFor(7L, "patient", "1"));
+
+        assertNull(jwtUtils.verifyJwtToken(token));
+    }
+
+    @Test
+    void verifyRejectsExpiredToken() {
+        String token = newJwtUtils(SECRET, -1_000).generateJwtToken(authenticationFor(7L, "patient", "1"));
+
+        assertNull(jwtUtils.verifyJwtToken(token));
+    }
+
+    @Test
+    void verifyRejectsMissingToken() {
+        assertNull(jwtUtils.verifyJwtToken(""));
+    }
+
+    private static JwtUtils newJwtUtils(String secret, int expirationMs) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret", secret);
+        ReflectionTestUtils.setField(utils, "jwtExpirationMs", expirationMs);
+        utils.init();
+        return utils;
+    }
+
+    private static UsernamePasswordAuthenticationToken authenticationFor(Long id, String username, String role) {
+        UserDetailsImpl principal = UserDetailsImpl.fromClaims(id, username, username + "@example.com", "Patient",
+                List.of(role), 0);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,143 @@
+package com.fpt.hivtreatment.service;
+
+import com.fpt.hivtreatment.exception.SlotUnavailableException;
+import com.fpt.hivtreatment.model.entity.AppointmentSlot;
+import com.fpt.hivtreatment.repository.AppointmentSlotRepository;
+import com.fpt.hivtreatment.service.impl.SlotBookingServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for SlotBookingService to verify a slot can only be booked once
+ */
+@ExtendWith(MockitoExtension.class)
+class SlotBookingServiceTest {
+
+    private static final Long SLOT_ID = 1L;
+
+    @Mock
+    private AppointmentSlotRepository appointmentSlotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SlotBookingServiceImpl slotBookingService;
+
+    private AppointmentSlot slot;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(slotBookingService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(slotBookingService, "retryBackoffMs", 1L);
+
+        slot = AppointmentSlot.builder()
+                .id(SLOT_ID)
+                .isAvailable(true)
+                .build();
+    }
+
+    @Test
+    void testBookSlot_ConcurrentBookings_OnlyOneWins() throws Exception {
+        // Given: the conditional UPDATE behaves like the database row
+        AtomicBoolean available = new AtomicBoolean(true);
+        when(appointmentSlotRepository.claimSlot(SLOT_ID))
+                .thenAnswer(invocation -> available.compareAndSet(true, false) ? 1 : 0);
+        when(appointmentSlotRepository.existsById(SLOT_ID)).thenReturn(true);
+        when(appointmentSlotRepository.findById(SLOT_ID)).thenReturn(Optional.of(slot));
+
+        int bookings = 300;
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < bookings; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    slotBookingService.bookSlot(SLOT_ID, claimed -> booked.incrementAndGet());
+                } catch (SlotUnavailableException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, booked.get());
+        assertEquals(bookings - 1, rejected.get());
+        assertFalse(available.get());
+    }
+
+    @Test
+    void testBookSlot_SlotTaken_DoesNotRunBooking() {
+        // Given
+        when(appointmentSlotRepository.claimSlot(SLOT_ID)).thenReturn(0);
+        when(appointmentSlotRepository.existsById(SLOT_ID)).thenReturn(true);
+        AtomicInteger booked = new AtomicInteger();
+
+        // When / Then
+        SlotUnavailableException e = assertThrows(SlotUnavailableException.class,
+                () -> slotBookingService.bookSlot(SLOT_ID, claimed -> booked.incrementAndGet()));
+        assertEquals(SLOT_ID, e.getSlotId());
+        assertEquals(0, booked.get());
+        verify(appointmentSlotRepository, never()).findById(SLOT_ID);
+    }
+
+    @Test
+    void testBookSlot_TransientFailure_IsRetried() {
+        // Given: first attempt hits a lock wait timeout
+        when(appointmentSlotRepository.claimSlot(SLOT_ID))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"))
+                .thenReturn(1);
+        when(appointmentSlotRepository.findById(SLOT_ID)).thenReturn(Optional.of(slot));
+
+        // When
+        Long bookedSlotId = slotBookingService.bookSlot(SLOT_ID, AppointmentSlot::getId);
+
+        // Then
+        assertEquals(SLOT_ID, bookedSlotId);
+        verify(appointmentSlotRepository, times(2)).claimSlot(SLOT_ID);
+    }
+
+    @Test
+    void testBookSlot_TransientFailure_GivesUpAfterMaxAttempts() {
+        // Given
+        when(appointmentSlotRepository.claimSlot(SLOT_ID))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+
+        // When / Then
+        assertThrows(CannotAcquireLockException.class,
+                () -> slotBookingService.bookSlot(SLOT_ID, AppointmentSlot::getId));
+        verify(appointmentSlotRepository, times(3)).claimSlot(SLOT_ID);
+    }
+}